@@ -6,7 +6,6 @@ import 'package:get/get.dart';
 import 'package:image_picker/image_picker.dart';
 import 'package:oraculum_medium/config/theme.dart';
 import 'package:oraculum_medium/controllers/profile_controller.dart';
-import 'package:oraculum_medium/models/medium_model.dart';
 import 'package:oraculum_medium/widgets/buttons/custom_elevated_button.dart';
 import 'package:oraculum_medium/widgets/loading_overlay.dart';
 
@@ -784,52 +783,20 @@ class _ProfileEditScreenState extends State<ProfileEditScreen> {
             return;
         }
 
-        setState(() {
-            _isLoading = true;
-        });
-
-        try {
-            final medium = MediumModel(
-                    id: _controller.medium.value?.id ?? '',
-                    name: _nameController.text.trim(),
-                    email: _emailController.text.trim(),
-                    phone: _phoneController.text.trim(),
-                    bio: _bioController.text.trim(),
-                    experience: _experienceController.text.trim(),
-                    specialties: _selectedSpecialties.toList(),
-                    profileImageUrl: _controller.medium.value?.profileImageUrl ?? '',
-                    isActive: _controller.medium.value?.isActive ?? true,
-                    isAvailable: _controller.medium.value?.isAvailable ?? false,
-                    rating: _controller.medium.value?.rating ?? 0.0,
-                    totalReadings: _controller.medium.value?.totalReadings ?? 0,
-                    pricePerMinute: _controller.medium.value?.pricePerMinute ?? 0.0,
-                    createdAt: _controller.medium.value?.createdAt ?? DateTime.now(),
-                    updatedAt: DateTime.now(),
+        // Envia só os campos alterados; avaliação, contadores, preço e datas
+        // continuam sendo mantidos pelo servidor. O upload da imagem roda em
+        // paralelo e o estado local já reflete as alterações.
+        _controller.saveProfileChanges(
+                name: _nameController.text.trim(),
+                email: _emailController.text.trim(),
+                phone: _phoneController.text.trim(),
+                bio: _bioController.text.trim(),
+                experience: _experienceController.text.trim(),
+                specialties: _selectedSpecialties.toList(),
+                image: _selectedImage,
       );
 
-            await _controller.updateProfile(medium, _selectedImage);
-
-            Get.back();
-            Get.snackbar(
-                    'Sucesso',
-                    'Perfil atualizado com sucesso!',
-                    backgroundColor: Colors.green,
-                    colorText: Colors.white,
-                    snackPosition: SnackPosition.BOTTOM,
-      );
-        } catch (e) {
-            Get.snackbar(
-                    'Erro',
-                    'Erro ao atualizar perfil: $e',
-                    backgroundColor: Colors.red,
-                    colorText: Colors.white,
-                    snackPosition: SnackPosition.BOTTOM,
-      );
-        } finally {
-            setState(() {
-                _isLoading = false;
-            });
-        }
+        Get.back();
     }
 }
 
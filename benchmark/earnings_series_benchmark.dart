@@ -0,0 +1,107 @@
+import 'package:flutter/foundation.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/earnings_series.dart';
+
+import 'legacy/legacy_earnings.dart';
+
+/// Mede a [EarningsSeries] com `years` anos de ganhos diários, comparando
+/// com o agrupamento antigo por chave `yyyy-MM-dd` refeito a cada chamada. A equivalência entre os dois e as garantias do
+/// LTTB são verificadas em `test/utils/earnings_series_test.dart`.
+///
+/// Zoom e arrasto são simulados com `frames` janelas diferentes (10 s a
+/// 60 fps), todas diferentes entre si para não aproveitar o cache.
+///
+/// Executar com `flutter test benchmark/earnings_series_benchmark.dart`.
+void main() {
+  test('EarningsSeriesBenchmark', () => EarningsSeriesBenchmark.run());
+}
+
+class EarningsSeriesBenchmark {
+  static const int frameBudgetMicros = 16667;
+
+  /// Executa o benchmark e imprime o resultado
+  static void run({int years = 5, int pointBudget = 100, int frames = 600, int legacyIterations = 20}) {
+    final records = LegacyEarnings.generateRecords(DateTime(DateTime.now().year - years, 1, 1), years);
+    final series = EarningsSeries();
+
+    final initialSync = Stopwatch()..start();
+    series.sync(records);
+    initialSync.stop();
+
+    var sink = 0.0;
+
+    final legacy = Stopwatch()..start();
+    for (var i = 0; i < legacyIterations; i++) {
+      sink += LegacyEarnings.group(records).length;
+    }
+    legacy.stop();
+
+    // Novos ganhos chegando um a um no fim da série
+    final last = series.lastDate!;
+    final incremental = Stopwatch()..start();
+    for (var i = 0; i < 100; i++) {
+      series.upsert('bench_new_$i', last.add(Duration(days: i ~/ 3, hours: 10)), 80.0 + i, 20.0);
+    }
+    incremental.stop();
+
+    final first = series.firstDate!;
+    final fullSpan = series.lastDate!.difference(first);
+
+    // Arrasto: janela de 1 ano percorrendo a série
+    const panSpan = Duration(days: 365);
+    final panStep = (fullSpan - panSpan).inMilliseconds / frames;
+    final pan = _frames(frames, (frame) {
+      final start = first.add(Duration(milliseconds: (panStep * frame).round()));
+      return series.points(from: start, to: start.add(panSpan), maxPoints: pointBudget).length;
+    });
+
+    // Zoom: da série inteira até 7 dias, centrado no meio
+    final middle = first.add(fullSpan ~/ 2);
+    final zoom = _frames(frames, (frame) {
+      final fraction = 1 - frame / frames;
+      final half = Duration(milliseconds: (fullSpan.inMilliseconds * fraction / 2).round()) +
+          const Duration(days: 3);
+      return series.points(from: middle.subtract(half), to: middle.add(half), maxPoints: pointBudget).length;
+    });
+
+    sink += pan.$3 + zoom.$3;
+
+    debugPrint('📊 EarningsSeriesBenchmark (${records.length} registros, ${series.length} dias, '
+        'orçamento de $pointBudget pontos):');
+    debugPrint('  - agrupamento antigo: ${legacy.elapsedMicroseconds ~/ legacyIterations}µs por chamada');
+    debugPrint('  - sincronização inicial: ${initialSync.elapsedMicroseconds}µs');
+    debugPrint('  - registro incremental: ${incremental.elapsedMicroseconds ~/ 100}µs por registro');
+    _report('arrasto', pan);
+    _report('zoom', zoom);
+    debugPrint('  (checksum: ${sink.toStringAsFixed(1)})');
+  }
+
+  /// Executa [frames] consultas e retorna (média µs, máximo µs, checksum)
+  static (int, int, int) _frames(int frames, int Function(int frame) body) {
+    var total = 0;
+    var worst = 0;
+    var checksum = 0;
+    final stopwatch = Stopwatch();
+
+    for (var frame = 0; frame < frames; frame++) {
+      stopwatch
+        ..reset()
+        ..start();
+      checksum += body(frame);
+      stopwatch.stop();
+
+      final micros = stopwatch.elapsedMicroseconds;
+      total += micros;
+      if (micros > worst) worst = micros;
+    }
+
+    return (total ~/ frames, worst, checksum);
+  }
+
+  static void _report(String label, (int, int, int) result) {
+    final (average, worst, _) = result;
+    final status = worst < frameBudgetMicros ? '✅' : '⚠️';
+    debugPrint('  - $label: média ${average}µs, pior ${worst}µs por frame '
+        '(orçamento ${frameBudgetMicros}µs) $status');
+  }
+}
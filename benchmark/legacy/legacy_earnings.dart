@@ -0,0 +1,67 @@
+import 'package:intl/intl.dart';
+
+/// Agrupamento diário usado antes por `getChartData` (sem o corte dos 10
+/// últimos dias) e gerador de ganhos sintéticos, usados como referência pelos
+/// testes de `EarningsSeries` e pelo benchmark
+class LegacyEarnings {
+  /// Totais por dia, em ordem de data: (`yyyy-MM-dd`, médium, Oraculum)
+  static List<(String, double, double)> group(List<Map<String, dynamic>> records) {
+    final Map<String, Map<String, dynamic>> dailyEarnings = {};
+
+    for (final earning in records) {
+      final date = earning['date'] as DateTime;
+      final dateKey = DateFormat('yyyy-MM-dd').format(date);
+      final mediumAmount = (earning['mediumAmount'] ?? 0.0).toDouble();
+      final oraculumAmount = (earning['oraculumAmount'] ?? 0.0).toDouble();
+
+      if (dailyEarnings.containsKey(dateKey)) {
+        dailyEarnings[dateKey]!['mediumAmount'] =
+            (dailyEarnings[dateKey]!['mediumAmount'] as double) + mediumAmount;
+        dailyEarnings[dateKey]!['oraculumAmount'] =
+            (dailyEarnings[dateKey]!['oraculumAmount'] as double) + oraculumAmount;
+      } else {
+        dailyEarnings[dateKey] = {
+          'mediumAmount': mediumAmount,
+          'oraculumAmount': oraculumAmount,
+          'dateTime': date,
+        };
+      }
+    }
+
+    final sortedEntries = dailyEarnings.entries.toList();
+    sortedEntries.sort((a, b) {
+      final dateA = a.value['dateTime'] as DateTime;
+      final dateB = b.value['dateTime'] as DateTime;
+      return dateA.compareTo(dateB);
+    });
+
+    return [
+      for (final entry in sortedEntries)
+        (entry.key, entry.value['mediumAmount'] as double, entry.value['oraculumAmount'] as double),
+    ];
+  }
+
+  /// Um a três ganhos por dia durante [years] anos a partir de [start], com
+  /// tendência e sazonalidade, no formato de `getEarningsHistory`
+  static List<Map<String, dynamic>> generateRecords(DateTime start, int years) {
+    final records = <Map<String, dynamic>>[];
+    final days = years * 365 + years ~/ 4;
+
+    for (var day = 0; day < days; day++) {
+      final date = DateTime(start.year, start.month, start.day + day);
+      final count = 1 + (day * 7) % 3;
+
+      for (var i = 0; i < count; i++) {
+        final total = 50.0 + day * 0.05 + (day % 30) * 2 + ((day * 31 + i * 17) % 97);
+        records.add({
+          'id': 'bench_${day}_$i',
+          'date': date.add(Duration(hours: 9 + i * 3)),
+          'mediumAmount': total * 0.8,
+          'oraculumAmount': total * 0.2,
+        });
+      }
+    }
+
+    return records;
+  }
+}
@@ -0,0 +1,76 @@
+/// Cópia da implementação anterior de `ZodiacUtils`, baseada em mapas,
+/// usada como referência pelos testes de equivalência e pelo benchmark
+class LegacyZodiac {
+  static String element(String sign) {
+    final Map<String, String> signElements = {
+      'Áries': 'Fogo', 'Leão': 'Fogo', 'Sagitário': 'Fogo',
+      'Touro': 'Terra', 'Virgem': 'Terra', 'Capricórnio': 'Terra',
+      'Gêmeos': 'Ar', 'Libra': 'Ar', 'Aquário': 'Ar',
+      'Câncer': 'Água', 'Escorpião': 'Água', 'Peixes': 'Água',
+    };
+
+    return signElements[sign] ?? 'Desconhecido';
+  }
+
+  static String signFromDate(DateTime birthDate) {
+    final day = birthDate.day;
+    final month = birthDate.month;
+
+    if ((month == 1 && day >= 20) || (month == 2 && day <= 18)) return 'Aquário';
+    if ((month == 2 && day >= 19) || (month == 3 && day <= 20)) return 'Peixes';
+    if ((month == 3 && day >= 21) || (month == 4 && day <= 19)) return 'Áries';
+    if ((month == 4 && day >= 20) || (month == 5 && day <= 20)) return 'Touro';
+    if ((month == 5 && day >= 21) || (month == 6 && day <= 20)) return 'Gêmeos';
+    if ((month == 6 && day >= 21) || (month == 7 && day <= 22)) return 'Câncer';
+    if ((month == 7 && day >= 23) || (month == 8 && day <= 22)) return 'Leão';
+    if ((month == 8 && day >= 23) || (month == 9 && day <= 22)) return 'Virgem';
+    if ((month == 9 && day >= 23) || (month == 10 && day <= 22)) return 'Libra';
+    if ((month == 10 && day >= 23) || (month == 11 && day <= 21)) return 'Escorpião';
+    if ((month == 11 && day >= 22) || (month == 12 && day <= 21)) return 'Sagitário';
+
+    return 'Capricórnio';
+  }
+
+  static double compatibility(String sign1, String sign2) {
+    final element1 = element(sign1);
+    final element2 = element(sign2);
+
+    Map<String, Map<String, double>> elementCompatibility = {
+      'Fogo': {'Fogo': 0.8, 'Terra': 0.4, 'Ar': 0.9, 'Água': 0.3},
+      'Terra': {'Fogo': 0.4, 'Terra': 0.7, 'Ar': 0.5, 'Água': 0.9},
+      'Ar': {'Fogo': 0.9, 'Terra': 0.5, 'Ar': 0.8, 'Água': 0.4},
+      'Água': {'Fogo': 0.3, 'Terra': 0.9, 'Ar': 0.4, 'Água': 0.8},
+    };
+
+    Map<String, Map<String, double>> specialCompatibility = {
+      'Áries': {'Libra': 0.9, 'Leão': 0.85},
+      'Touro': {'Escorpião': 0.85, 'Câncer': 0.9},
+      'Gêmeos': {'Sagitário': 0.85, 'Aquário': 0.9},
+      'Câncer': {'Capricórnio': 0.85, 'Peixes': 0.9},
+      'Leão': {'Aquário': 0.85, 'Sagitário': 0.9},
+      'Virgem': {'Peixes': 0.85, 'Escorpião': 0.9},
+      'Libra': {'Áries': 0.85, 'Aquário': 0.9},
+      'Escorpião': {'Touro': 0.85, 'Câncer': 0.9},
+      'Sagitário': {'Gêmeos': 0.85, 'Áries': 0.9},
+      'Capricórnio': {'Câncer': 0.85, 'Touro': 0.9},
+      'Aquário': {'Leão': 0.85, 'Libra': 0.9},
+      'Peixes': {'Virgem': 0.85, 'Câncer': 0.9},
+    };
+
+    if (specialCompatibility.containsKey(sign1) &&
+        specialCompatibility[sign1]!.containsKey(sign2)) {
+      return specialCompatibility[sign1]![sign2]!;
+    }
+    if (specialCompatibility.containsKey(sign2) &&
+        specialCompatibility[sign2]!.containsKey(sign1)) {
+      return specialCompatibility[sign2]![sign1]!;
+    }
+
+    if (elementCompatibility.containsKey(element1) &&
+        elementCompatibility[element1]!.containsKey(element2)) {
+      return elementCompatibility[element1]![element2]!;
+    }
+
+    return 0.7;
+  }
+}
@@ -0,0 +1,90 @@
+import 'dart:typed_data';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/zodiac_utils.dart';
+
+import 'legacy/legacy_zodiac.dart';
+
+/// Mede as tabelas pré-calculadas de [ZodiacUtils] contra a implementação
+/// antiga baseada em mapas. A equivalência entre as duas é verificada em
+/// `test/utils/zodiac_utils_test.dart`.
+///
+/// Executar com `flutter test benchmark/zodiac_benchmark.dart`.
+void main() {
+  test('ZodiacBenchmark', () => ZodiacBenchmark.run());
+}
+
+class ZodiacBenchmark {
+  /// Executa o benchmark e imprime o resultado
+  static void run({int iterations = 20000, int mediumCount = 500}) {
+    final signs = ZodiacUtils.allSigns;
+    var sink = 0.0;
+
+    final legacyScore = Stopwatch()..start();
+    for (var i = 0; i < iterations; i++) {
+      sink += LegacyZodiac.compatibility(signs[i % 12], signs[(i * 7) % 12]);
+    }
+    legacyScore.stop();
+
+    final tableScore = Stopwatch()..start();
+    for (var i = 0; i < iterations; i++) {
+      sink += ZodiacUtils.calculateCompatibilityScore(signs[i % 12], signs[(i * 7) % 12]);
+    }
+    tableScore.stop();
+
+    final legacyDate = Stopwatch()..start();
+    for (var i = 0; i < iterations; i++) {
+      sink += LegacyZodiac.signFromDate(_dateFor(i)).length;
+    }
+    legacyDate.stop();
+
+    final tableDate = Stopwatch()..start();
+    for (var i = 0; i < iterations; i++) {
+      sink += ZodiacUtils.getZodiacSignFromDate(_dateFor(i)).length;
+    }
+    tableDate.stop();
+
+    // Ranking: ordenação por comparação com o mapa antigo x contagem por signo
+    final mediumSigns = List<String>.generate(mediumCount, (i) => signs[(i * 5 + 3) % 12]);
+    final mediumIndices = Int8List.fromList([
+      for (final sign in mediumSigns) ZodiacUtils.signIndex(sign),
+    ]);
+    final order = Int32List(mediumCount);
+    final scores = Float64List(mediumCount);
+    final rankIterations = (iterations / 100).ceil();
+
+    final legacyRank = Stopwatch()..start();
+    for (var i = 0; i < rankIterations; i++) {
+      final client = signs[i % 12];
+      final ranked = List<int>.generate(mediumCount, (j) => j)
+        ..sort((a, b) => LegacyZodiac.compatibility(client, mediumSigns[b])
+            .compareTo(LegacyZodiac.compatibility(client, mediumSigns[a])));
+      sink += ranked.first;
+    }
+    legacyRank.stop();
+
+    final tableRank = Stopwatch()..start();
+    for (var i = 0; i < rankIterations; i++) {
+      ZodiacUtils.rankSignIndices(i % 12, mediumIndices, order, scores: scores);
+      sink += order[0];
+    }
+    tableRank.stop();
+
+    debugPrint('📊 ZodiacBenchmark ($iterations iterações, $mediumCount médiuns):');
+    _report('compatibilidade', legacyScore, tableScore);
+    _report('signo por data', legacyDate, tableDate);
+    _report('ranking ($rankIterations x)', legacyRank, tableRank);
+    debugPrint('  (checksum: ${sink.toStringAsFixed(1)})');
+  }
+
+  static DateTime _dateFor(int i) => DateTime(2024, 1, 1 + i % 366);
+
+  static void _report(String label, Stopwatch legacy, Stopwatch table) {
+    final speedup = table.elapsedMicroseconds == 0
+        ? '∞'
+        : (legacy.elapsedMicroseconds / table.elapsedMicroseconds).toStringAsFixed(1);
+    debugPrint('  - $label: mapas ${legacy.elapsedMicroseconds}µs, '
+        'tabelas ${table.elapsedMicroseconds}µs (${speedup}x)');
+  }
+}
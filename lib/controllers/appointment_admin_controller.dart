@@ -2,12 +2,14 @@ import 'package:flutter/material.dart';
 import 'package:get/get.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
 import 'package:oraculum_medium/models/appointment_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
 
 class AppointmentAdminController extends GetxController {
   final MediumService _mediumService = Get.find<MediumService>();
   final FirebaseService _firebaseService = Get.find<FirebaseService>();
+  final AppointmentAdmissionService _admissionService = Get.find<AppointmentAdmissionService>();
   final AuthController _authController = Get.find<AuthController>();
 
   final RxBool isLoading = false.obs;
@@ -26,6 +28,7 @@ class AppointmentAdminController extends GetxController {
     'confirmed',
     'completed',
     'canceled',
+    'rejected',
   ];
 
   final Map<String, String> filterLabels = {
@@ -34,6 +37,7 @@ class AppointmentAdminController extends GetxController {
     'confirmed': 'Confirmadas',
     'completed': 'Concluídas',
     'canceled': 'Canceladas',
+    'rejected': 'Recusadas',
   };
 
   String? get currentMediumId => _authController.mediumId;
@@ -192,13 +196,17 @@ class AppointmentAdminController extends GetxController {
 
   Future<bool> confirmAppointment(String appointmentId) async {
     try {
-      await _firebaseService.firestore
-          .collection('appointments')
-          .doc(appointmentId)
-          .update({
-        'status': 'confirmed',
-        'updatedAt': DateTime.now(),
-      });
+      final result = await _admissionService.admit(appointmentId);
+
+      if (!result.isAccepted) {
+        Get.snackbar(
+          'Horário indisponível',
+          result.reason ?? 'Não foi possível confirmar a consulta',
+          backgroundColor: Colors.orange,
+          colorText: Colors.white,
+        );
+        return false;
+      }
 
       await refreshAppointments();
 
@@ -219,15 +227,16 @@ class AppointmentAdminController extends GetxController {
 
   Future<bool> cancelAppointment(String appointmentId, String? reason) async {
     try {
-      await _firebaseService.firestore
-          .collection('appointments')
-          .doc(appointmentId)
-          .update({
-        'status': 'cancelled',
-        'cancelReason': reason ?? 'Cancelado pelo médium',
-        'canceledAt': DateTime.now(),
-        'updatedAt': DateTime.now(),
-      });
+      final success = await _admissionService.release(
+        appointmentId,
+        'cancelled',
+        reason: reason ?? 'Cancelado pelo médium',
+      );
+
+      if (!success) {
+        Get.snackbar('Erro', 'Não foi possível cancelar a consulta');
+        return false;
+      }
 
       await refreshAppointments();
 
@@ -306,7 +315,10 @@ class AppointmentAdminController extends GetxController {
           case 'completed':
             return appointment.isCompleted;
           case 'canceled':
+          case 'cancelled':
             return appointment.isCancelled;
+          case 'rejected':
+            return appointment.isRejected;
           default:
             return true;
         }
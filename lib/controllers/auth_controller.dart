@@ -3,12 +3,14 @@ import 'package:flutter/material.dart';
 import 'package:get/get.dart';
 import 'package:oraculum_medium/config/routes.dart';
 import 'package:oraculum_medium/models/medium_model.dart';
+import 'package:oraculum_medium/services/appointment_scheduler_service.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
 
 class AuthController extends GetxController {
   final FirebaseService _firebaseService = Get.find<FirebaseService>();
   final MediumService _mediumService = Get.find<MediumService>();
+  final AppointmentSchedulerService _appointmentScheduler = Get.find<AppointmentSchedulerService>();
 
   final Rx<User?> currentUser = Rx<User?>(null);
   final Rx<MediumModel?> currentMedium = Rx<MediumModel?>(null);
@@ -37,6 +39,7 @@ class AuthController extends GetxController {
         if (medium != null && medium.isActive) {
           currentMedium.value = medium;
           isLoggedIn.value = true;
+          _appointmentScheduler.start(user.uid);
           debugPrint('✅ Médium autenticado: ${medium.name}');
         } else {
           debugPrint('❌ Médium não encontrado ou inativo');
@@ -47,6 +50,7 @@ class AuthController extends GetxController {
         await logout();
       }
     } else {
+      _appointmentScheduler.stop();
       currentMedium.value = null;
       isLoggedIn.value = false;
       debugPrint('👤 Usuário deslogado');
@@ -253,6 +257,7 @@ class AuthController extends GetxController {
         await _mediumService.updateMediumStatus(currentUser.value!.uid, false);
       }
 
+      _appointmentScheduler.stop();
       await _firebaseService.auth.signOut();
       currentUser.value = null;
       currentMedium.value = null;
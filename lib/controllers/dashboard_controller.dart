@@ -3,10 +3,13 @@ import 'package:get/get.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
 import 'package:oraculum_medium/models/appointment_model.dart';
 import 'package:oraculum_medium/models/medium_stats_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
 
 class DashboardController extends GetxController {
   final MediumService _mediumService = Get.find<MediumService>();
+  final AppointmentAdmissionService _admissionService = Get.find<AppointmentAdmissionService>();
   final AuthController _authController = Get.find<AuthController>();
 
   final RxBool isLoading = false.obs;
@@ -61,9 +64,10 @@ class DashboardController extends GetxController {
     try {
       debugPrint('=== loadStats() ===');
       final mediumStats = await _mediumService.getMediumStats(currentMediumId!);
-      stats.value = mediumStats;
-      averageRating.value = mediumStats.averageRating;
-      monthlyCount.value = mediumStats.monthlyAppointments;
+      final batch = RxBatch.instance;
+      batch.set(stats, mediumStats);
+      batch.set(averageRating, mediumStats.averageRating);
+      batch.set(monthlyCount, mediumStats.monthlyAppointments);
 
       debugPrint('✅ Estatísticas carregadas');
     } catch (e) {
@@ -104,7 +108,7 @@ class DashboardController extends GetxController {
       );
 
       todayAppointments.value = appointments
-          .where((apt) => apt.status != 'canceled')
+          .where((apt) => !apt.isCancelled && !apt.isRejected)
           .toList();
 
       debugPrint('✅ ${todayAppointments.length} consultas de hoje carregadas');
@@ -162,9 +166,9 @@ class DashboardController extends GetxController {
       debugPrint('=== acceptAppointment() ===');
       debugPrint('Appointment ID: $appointmentId');
 
-      final success = await _mediumService.updateAppointmentStatus(appointmentId, 'confirmed');
+      final result = await _admissionService.admit(appointmentId);
 
-      if (success) {
+      if (result.isAccepted) {
         Get.snackbar(
           'Consulta Aceita',
           'A consulta foi aceita com sucesso',
@@ -174,7 +178,7 @@ class DashboardController extends GetxController {
 
         await loadDashboardData();
       } else {
-        Get.snackbar('Erro', 'Não foi possível aceitar a consulta');
+        Get.snackbar('Erro', result.reason ?? 'Não foi possível aceitar a consulta');
       }
     } catch (e) {
       debugPrint('❌ Erro ao aceitar consulta: $e');
@@ -1,8 +1,13 @@
+import 'dart:async';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
 import 'package:flutter/material.dart';
 import 'package:get/get.dart';
 import 'package:intl/intl.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
+import 'package:oraculum_medium/utils/earnings_series.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
 
 class EarningsController extends GetxController {
   final MediumService _mediumService = Get.find<MediumService>();
@@ -22,6 +27,21 @@ class EarningsController extends GetxController {
   final RxInt totalConsultations = 0.obs;
   final RxInt monthlyConsultations = 0.obs;
 
+  /// Série diária do gráfico, alimentada pelos `docChanges` do histórico
+  final EarningsSeries chartSeries = EarningsSeries();
+  final RxInt chartVersion = 0.obs;
+
+  /// Listener do histórico e o intervalo que ele cobre; só uma mudança de
+  /// intervalo refaz a série
+  StreamSubscription<QuerySnapshot>? _historySubscription;
+  (DateTime, DateTime?)? _historyRange;
+
+  /// Janela visível do gráfico; `null` mostra a série inteira
+  final Rx<DateTimeRange?> chartWindow = Rx<DateTimeRange?>(null);
+
+  /// Menor intervalo que o zoom do gráfico alcança
+  static const Duration minChartSpan = Duration(days: 7);
+
   String? get currentMediumId => _authController.mediumId;
 
   @override
@@ -30,7 +50,10 @@ class EarningsController extends GetxController {
     loadEarningsData();
 
     // Atualizar dados quando o período mudar
-    ever(selectedPeriod, (_) => loadEarningsData());
+    ever(selectedPeriod, (_) {
+      chartWindow.value = null;
+      loadEarningsData();
+    });
   }
 
   Future<void> loadEarningsData() async {
@@ -56,37 +79,78 @@ class EarningsController extends GetxController {
   Future<void> loadEarningsHistory() async {
     if (currentMediumId == null) return;
 
-    try {
-      debugPrint('=== loadEarningsHistory() ===');
-
-      DateTime? start = startDate.value;
-      DateTime? end = endDate.value;
-
-      if (start == null || end == null) {
-        final dates = _getPeriodDates(selectedPeriod.value);
-        start = dates['start'];
-        end = dates['end'];
-      }
+    debugPrint('=== loadEarningsHistory() ===');
+
+    // Períodos fixos ficam em aberto no fim: ganhos novos chegam pelo listener
+    final DateTime start;
+    final DateTime? end;
+    if (startDate.value != null && endDate.value != null) {
+      start = startDate.value!;
+      end = endDate.value;
+    } else {
+      start = _getPeriodDates(selectedPeriod.value)['start']!;
+      end = null;
+    }
 
-      final earnings = await _mediumService.getEarningsHistory(
-        currentMediumId!,
-        startDate: start,
-        endDate: end,
-      );
+    if (_historySubscription != null && _historyRange == (start, end)) {
+      debugPrint('⚠️ Histórico já acompanhado neste intervalo');
+      return;
+    }
 
-      // Ordenar por data (mais recente primeiro)
-      earnings.sort((a, b) {
-        final dateA = a['date']?.toDate() ?? DateTime.now();
-        final dateB = b['date']?.toDate() ?? DateTime.now();
-        return dateB.compareTo(dateA);
-      });
+    _historySubscription?.cancel();
+    _historyRange = (start, end);
+    chartSeries.clear();
+
+    final firstSnapshot = Completer<void>();
+    _historySubscription = _mediumService
+        .getEarningsHistoryStream(currentMediumId!, startDate: start, endDate: end)
+        .listen(
+      (snapshot) {
+        _onHistorySnapshot(snapshot);
+        if (!firstSnapshot.isCompleted) firstSnapshot.complete();
+      },
+      onError: (e) {
+        debugPrint('❌ Erro ao carregar histórico: $e');
+        earningsHistory.value = [];
+        chartSeries.clear();
+        chartVersion.value = chartSeries.version;
+        _historySubscription = null;
+        _historyRange = null;
+        if (!firstSnapshot.isCompleted) firstSnapshot.complete();
+      },
+      cancelOnError: true,
+    );
+
+    await firstSnapshot.future;
+  }
+
+  /// A consulta já vem do mais recente para o mais antigo; a série recebe só
+  /// os documentos que mudaram neste snapshot
+  void _onHistorySnapshot(QuerySnapshot snapshot) {
+    earningsHistory.value = snapshot.docs
+        .map((doc) => {
+      'id': doc.id,
+      ...doc.data() as Map<String, dynamic>,
+    })
+        .toList();
 
-      earningsHistory.value = earnings;
-      debugPrint('✅ ${earnings.length} registros de ganhos carregados');
-    } catch (e) {
-      debugPrint('❌ Erro ao carregar histórico: $e');
-      earningsHistory.value = [];
+    final changes = chartSeries.applyChanges(
+      upserted: snapshot.docChanges
+          .where((change) => change.type != DocumentChangeType.removed)
+          .map((change) => {
+        'id': change.doc.id,
+        ...change.doc.data() as Map<String, dynamic>,
+      }),
+      removed: snapshot.docChanges
+          .where((change) => change.type == DocumentChangeType.removed)
+          .map((change) => change.doc.id),
+    );
+
+    if (chartVersion.value != chartSeries.version) {
+      debugPrint('📈 Série do gráfico: $changes registro(s) alterado(s), ${chartSeries.length} dia(s)');
+      chartVersion.value = chartSeries.version;
     }
+    debugPrint('✅ ${earningsHistory.length} registros de ganhos carregados');
   }
 
   Future<void> loadWalletBalance() async {
@@ -142,12 +206,13 @@ class EarningsController extends GetxController {
         }
       }
 
-      monthlyEarnings.value = monthlyTotal;
-      weeklyEarnings.value = weeklyTotal;
-      totalCommissions.value = totalCommissionsCalculated;
-      monthlyCommissions.value = monthlyCommissionsTotal;
-      totalConsultations.value = totalConsultationsCount;
-      monthlyConsultations.value = monthlyConsultationsCount;
+      final batch = RxBatch.instance;
+      batch.set(monthlyEarnings, monthlyTotal);
+      batch.set(weeklyEarnings, weeklyTotal);
+      batch.set(totalCommissions, totalCommissionsCalculated);
+      batch.set(monthlyCommissions, monthlyCommissionsTotal);
+      batch.set(totalConsultations, totalConsultationsCount);
+      batch.set(monthlyConsultations, monthlyConsultationsCount);
 
       debugPrint('✅ Totais calculados:');
       debugPrint('  - Mensal: R\$ ${monthlyTotal.toStringAsFixed(2)}');
@@ -166,7 +231,7 @@ class EarningsController extends GetxController {
 
     switch (period) {
       case 'week':
-        start = now.subtract(Duration(days: now.weekday - 1));
+        start = DateTime(now.year, now.month, now.day - (now.weekday - 1));
         break;
       case 'month':
         start = DateTime(now.year, now.month, 1);
@@ -443,65 +508,78 @@ class EarningsController extends GetxController {
     return sampleData;
   }
 
-  // Método para usar dados reais ou de exemplo
-  List<Map<String, dynamic>> getChartData() {
-    if (earningsHistory.isEmpty) {
-      return generateSampleChartData();
-    }
+  /// Intervalo efetivamente exibido: a janela do zoom limitada à série
+  DateTimeRange? get visibleChartRange {
+    final first = chartSeries.firstDate;
+    final last = chartSeries.lastDate;
+    if (first == null || last == null) return null;
 
-    // Agrupar ganhos por dia
-    final Map<String, Map<String, dynamic>> dailyEarnings = {};
+    final window = chartWindow.value;
+    if (window == null) return DateTimeRange(start: first, end: last);
 
-    for (final earning in earningsHistory) {
-      final date = earning['date']?.toDate() ?? DateTime.now();
-      final dateKey = DateFormat('yyyy-MM-dd').format(date);
-      final mediumAmount = (earning['mediumAmount'] ?? 0.0).toDouble();
-      final oraculumAmount = (earning['oraculumAmount'] ?? 0.0).toDouble();
-
-      if (dailyEarnings.containsKey(dateKey)) {
-        dailyEarnings[dateKey]!['mediumAmount'] =
-            (dailyEarnings[dateKey]!['mediumAmount'] as double) + mediumAmount;
-        dailyEarnings[dateKey]!['oraculumAmount'] =
-            (dailyEarnings[dateKey]!['oraculumAmount'] as double) + oraculumAmount;
-      } else {
-        dailyEarnings[dateKey] = {
-          'mediumAmount': mediumAmount,
-          'oraculumAmount': oraculumAmount,
-          'dateTime': date,
-        };
-      }
+    final start = window.start.isBefore(first) ? first : window.start;
+    final end = window.end.isAfter(last) ? last : window.end;
+    return end.isBefore(start) ? DateTimeRange(start: first, end: last) : DateTimeRange(start: start, end: end);
+  }
+
+  /// Ajusta a janela do gráfico durante zoom/pan
+  ///
+  /// O intervalo é limitado à série e a [minChartSpan]; a escrita passa pelo
+  /// [RxBatch], então vários eventos de gesto no mesmo frame geram uma única
+  /// reconstrução do gráfico.
+  void setChartWindow(DateTime start, DateTime end) {
+    final first = chartSeries.firstDate;
+    final last = chartSeries.lastDate;
+    if (first == null || last == null) return;
+
+    final fullSpan = last.difference(first);
+    var span = end.difference(start);
+    if (span < minChartSpan) span = minChartSpan;
+
+    if (span >= fullSpan) {
+      RxBatch.instance.set(chartWindow, null);
+      return;
     }
 
-    // Converter para lista e ordenar por data
-    final sortedEntries = dailyEarnings.entries.toList();
-    sortedEntries.sort((a, b) {
-      final dateA = a.value['dateTime'] as DateTime;
-      final dateB = b.value['dateTime'] as DateTime;
-      return dateA.compareTo(dateB);
-    });
+    if (start.isBefore(first)) start = first;
+    if (start.add(span).isAfter(last)) start = last.subtract(span);
 
-    final chartData = sortedEntries.map((entry) {
-      final date = entry.value['dateTime'] as DateTime;
-      return {
-        'date': DateFormat('dd/MM').format(date),
-        'shortDate': DateFormat('dd').format(date),
-        'mediumAmount': entry.value['mediumAmount'] as double,
-        'oraculumAmount': entry.value['oraculumAmount'] as double,
-        'fullDate': date,
-      };
-    }).toList();
+    RxBatch.instance.set(chartWindow, DateTimeRange(start: start, end: start.add(span)));
+  }
+
+  void resetChartWindow() {
+    RxBatch.instance.set(chartWindow, null);
+  }
 
-    // Pegar apenas os últimos 10 pontos para melhor visualização
-    final recentData = chartData.length > 10
-        ? chartData.sublist(chartData.length - 10)
-        : chartData;
+  /// Dados do gráfico na janela visível, reduzidos a no máximo [maxPoints]
+  /// pontos por LTTB (o gráfico passa um orçamento pela largura em pixels)
+  List<Map<String, dynamic>> getChartData({int maxPoints = 0}) {
+    // Lidos para que o Obx do gráfico reaja à série e à janela
+    chartVersion.value;
+    chartWindow.value;
 
-    return recentData;
+    if (chartSeries.isEmpty) {
+      return generateSampleChartData();
+    }
+
+    final range = visibleChartRange!;
+    final points = chartSeries.points(from: range.start, to: range.end, maxPoints: maxPoints);
+    final dayMonthFormat = DateFormat('dd/MM');
+    final dayFormat = DateFormat('dd');
+
+    return points.map((point) => {
+      'date': dayMonthFormat.format(point.date),
+      'shortDate': dayFormat.format(point.date),
+      'mediumAmount': point.mediumAmount,
+      'oraculumAmount': point.oraculumAmount,
+      'fullDate': point.date,
+    }).toList();
   }
 
   @override
   void onClose() {
     debugPrint('🧹 EarningsController finalizando...');
+    _historySubscription?.cancel();
     super.onClose();
   }
 }
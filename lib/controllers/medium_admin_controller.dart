@@ -4,13 +4,26 @@ import 'package:oraculum_medium/models/availability_settings_model.dart';
 import 'package:oraculum_medium/models/medium_model.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
+import 'package:oraculum_medium/services/presence_service.dart';
+import 'package:oraculum_medium/services/settings_sync_engine.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
 
 class MediumAdminController extends GetxController {
   final FirebaseService _firebaseService = Get.find<FirebaseService>();
   final MediumService _mediumService = Get.find<MediumService>();
+  final PresenceService _presenceService = Get.find<PresenceService>();
   final AuthController _authController = Get.find<AuthController>();
 
+  late final SettingsSyncEngine _settingsSync = SettingsSyncEngine(
+    debugLabel: 'MediumAdminController.settings',
+    documentRef: () => _firebaseService.mediumSettingsCollection.doc(currentMediumId),
+  );
+  late final SettingsSyncEngine _availabilitySync = SettingsSyncEngine(
+    debugLabel: 'MediumAdminController.availability',
+    documentRef: () => _firebaseService.mediumAvailabilityCollection.doc(currentMediumId),
+  );
+
   final isLoading = false.obs;
   final isSaving = false.obs;
   final isRefreshing = false.obs;
@@ -95,6 +108,8 @@ class MediumAdminController extends GetxController {
   void _initializeController() {
     debugPrint('=== MediumAdminController.onInit() ===');
 
+    _bindSync();
+
     ever(_authController.currentUser, (user) {
       if (user != null) {
         loadMediumProfile();
@@ -104,6 +119,25 @@ class MediumAdminController extends GetxController {
     });
   }
 
+  void _bindSync() {
+    _settingsSync.bind('autoAcceptAppointments', autoAcceptAppointments);
+    _settingsSync.bind('bufferTime', bufferTime,
+        validate: AvailabilitySettingsModel.isValidBufferTime);
+    _settingsSync.bind('maxDailyAppointments', maxDailyAppointments,
+        validate: AvailabilitySettingsModel.isValidMaxDailyAppointments);
+    _settingsSync.bind('minAdvanceBooking', minAdvanceBooking);
+    _settingsSync.bind('maxAdvanceBooking', maxAdvanceBooking);
+    _settingsSync.bind('allowSameDayBooking', allowSameDayBooking);
+    _settingsSync.bind('minimumSessionPrice', minimumSessionPrice, decode: (value) => (value as num).toDouble());
+    _settingsSync.bind('acceptsCredits', acceptsCredits);
+    _settingsSync.bind('acceptsCards', acceptsCards);
+    _settingsSync.bind('acceptsPix', acceptsPix);
+    _settingsSync.bind('consultationDurations', consultationDurations,
+        decode: (value) => List<int>.from(value),
+        validate: AvailabilitySettingsModel.isValidConsultationDurations);
+    _settingsSync.bind('notificationSettings', notificationSettings, decode: (value) => Map<String, bool>.from(value));
+  }
+
   void _clearData() {
     mediumProfile.value = null;
     totalAppointments.value = 0;
@@ -202,30 +236,32 @@ class MediumAdminController extends GetxController {
       if (settingsDoc.exists) {
         final settingsData = settingsDoc.data() as Map<String, dynamic>;
 
-        autoAcceptAppointments.value = settingsData['autoAcceptAppointments'] ?? false;
-        bufferTime.value = settingsData['bufferTime'] ?? 15;
-        maxDailyAppointments.value = settingsData['maxDailyAppointments'] ?? 10;
-        minAdvanceBooking.value = settingsData['minAdvanceBooking'] ?? 2;
-        maxAdvanceBooking.value = settingsData['maxAdvanceBooking'] ?? 30;
-        allowSameDayBooking.value = settingsData['allowSameDayBooking'] ?? true;
-
-        if (settingsData['notificationSettings'] != null) {
-          final notifications = settingsData['notificationSettings'] as Map<String, dynamic>;
-          notificationSettings.addAll(notifications.cast<String, bool>());
-        }
+        _settingsSync.applyRemote(settingsData, () {
+          autoAcceptAppointments.value = settingsData['autoAcceptAppointments'] ?? false;
+          bufferTime.value = settingsData['bufferTime'] ?? 15;
+          maxDailyAppointments.value = settingsData['maxDailyAppointments'] ?? 10;
+          minAdvanceBooking.value = settingsData['minAdvanceBooking'] ?? 2;
+          maxAdvanceBooking.value = settingsData['maxAdvanceBooking'] ?? 30;
+          allowSameDayBooking.value = settingsData['allowSameDayBooking'] ?? true;
+
+          if (settingsData['notificationSettings'] != null) {
+            final notifications = settingsData['notificationSettings'] as Map<String, dynamic>;
+            notificationSettings.addAll(notifications.cast<String, bool>());
+          }
 
-        if (settingsData['consultationDurations'] != null) {
-          consultationDurations.value = List<int>.from(settingsData['consultationDurations']);
-        }
+          if (settingsData['consultationDurations'] != null) {
+            consultationDurations.value = List<int>.from(settingsData['consultationDurations']);
+          }
 
-        if (settingsData['availability'] != null) {
-          availability.value = Map<String, dynamic>.from(settingsData['availability']);
-        }
+          if (settingsData['availability'] != null) {
+            availability.value = Map<String, dynamic>.from(settingsData['availability']);
+          }
 
-        minimumSessionPrice.value = (settingsData['minimumSessionPrice'] ?? 10.0).toDouble();
-        acceptsCredits.value = settingsData['acceptsCredits'] ?? true;
-        acceptsCards.value = settingsData['acceptsCards'] ?? true;
-        acceptsPix.value = settingsData['acceptsPix'] ?? true;
+          minimumSessionPrice.value = (settingsData['minimumSessionPrice'] ?? 10.0).toDouble();
+          acceptsCredits.value = settingsData['acceptsCredits'] ?? true;
+          acceptsCards.value = settingsData['acceptsCards'] ?? true;
+          acceptsPix.value = settingsData['acceptsPix'] ?? true;
+        });
 
         settings.value = settingsData;
 
@@ -259,6 +295,7 @@ class MediumAdminController extends GetxController {
       };
 
       await _firebaseService.createMediumSettings(currentMediumId, defaultSettings);
+      _settingsSync.seed(defaultSettings);
       settings.value = defaultSettings;
 
       debugPrint('✅ Configurações padrão criadas');
@@ -270,58 +307,60 @@ class MediumAdminController extends GetxController {
   Future<void> _loadPerformanceData() async {
     try {
       final stats = await _mediumService.getMediumStats(currentMediumId);
-
-      totalEarnings.value = stats.totalEarnings;
-      monthlyEarnings.value = stats.monthlyEarnings;
-      completedAppointments.value = stats.completedAppointments;
-      totalAppointments.value = stats.totalAppointments;
-      averageRating.value = stats.averageRating;
-
-      weeklyAppointments.value = stats.weeklyAppointments;
-      monthlyAppointments.value = stats.monthlyAppointments;
-
       final appointments = await _mediumService.getMediumAppointments(currentMediumId);
 
       final now = DateTime.now();
       final today = DateTime(now.year, now.month, now.day);
+      final lastMonth = now.subtract(const Duration(days: 30));
 
-      todayAppointments.value = appointments.where((apt) =>
+      final todayCount = appointments.where((apt) =>
       apt.scheduledDate.year == today.year &&
           apt.scheduledDate.month == today.month &&
           apt.scheduledDate.day == today.day
       ).length;
 
-      pendingAppointments.value = appointments.where((apt) =>
+      final pendingCount = appointments.where((apt) =>
       apt.status == 'pending'
       ).length;
 
-      canceledAppointments.value = appointments.where((apt) =>
+      final canceledCount = appointments.where((apt) =>
       apt.status == 'canceled'
       ).length;
 
-      final uniqueClients = appointments.map((apt) => apt.clientId).toSet();
-      activeClients.value = uniqueClients.length;
+      final activeClientsCount = appointments.map((apt) => apt.clientId).toSet().length;
 
-      final lastMonth = now.subtract(const Duration(days: 30));
-      newClients.value = appointments.where((apt) =>
+      final newClientsCount = appointments.where((apt) =>
           apt.scheduledDate.isAfter(lastMonth)
       ).map((apt) => apt.clientId).toSet().length;
 
-      performanceMetrics.value = {
-        'totalAppointments': totalAppointments.value,
-        'completedAppointments': completedAppointments.value,
-        'canceledAppointments': canceledAppointments.value,
-        'totalEarnings': totalEarnings.value,
-        'monthlyEarnings': monthlyEarnings.value,
-        'averageRating': averageRating.value,
-        'todayAppointments': todayAppointments.value,
-        'weeklyAppointments': weeklyAppointments.value,
-        'monthlyAppointments': monthlyAppointments.value,
-        'pendingAppointments': pendingAppointments.value,
-        'activeClients': activeClients.value,
-        'newClients': newClients.value,
+      final batch = RxBatch.instance;
+      batch.set(totalEarnings, stats.totalEarnings);
+      batch.set(monthlyEarnings, stats.monthlyEarnings);
+      batch.set(completedAppointments, stats.completedAppointments);
+      batch.set(totalAppointments, stats.totalAppointments);
+      batch.set(averageRating, stats.averageRating);
+      batch.set(weeklyAppointments, stats.weeklyAppointments);
+      batch.set(monthlyAppointments, stats.monthlyAppointments);
+      batch.set(todayAppointments, todayCount);
+      batch.set(pendingAppointments, pendingCount);
+      batch.set(canceledAppointments, canceledCount);
+      batch.set(activeClients, activeClientsCount);
+      batch.set(newClients, newClientsCount);
+      batch.set<Map<String, dynamic>>(performanceMetrics, {
+        'totalAppointments': stats.totalAppointments,
+        'completedAppointments': stats.completedAppointments,
+        'canceledAppointments': canceledCount,
+        'totalEarnings': stats.totalEarnings,
+        'monthlyEarnings': stats.monthlyEarnings,
+        'averageRating': stats.averageRating,
+        'todayAppointments': todayCount,
+        'weeklyAppointments': stats.weeklyAppointments,
+        'monthlyAppointments': stats.monthlyAppointments,
+        'pendingAppointments': pendingCount,
+        'activeClients': activeClientsCount,
+        'newClients': newClientsCount,
         'responseTime': stats.responseTime,
-      };
+      });
 
       debugPrint('✅ Dados de performance carregados');
     } catch (e) {
@@ -391,12 +430,26 @@ class MediumAdminController extends GetxController {
         return false;
       }
 
-      await _firebaseService.updateMediumAvailability(currentMediumId, settings.toMap());
-      await _firebaseService.updateMediumSettings(currentMediumId, settings.toMap());
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'isAvailable': settings.isAvailable,
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      final settingsMap = settings.toMap();
+      _availabilitySync.stageAll(settingsMap);
+      _settingsSync.stageAll(settingsMap);
+
+      final results = await Future.wait([
+        _availabilitySync.flush(),
+        _settingsSync.flush(),
+      ]);
+
+      if (results.contains(false)) {
+        Get.snackbar('Erro', 'Erro ao salvar configurações');
+        return false;
+      }
+
+      if (mediumProfile.value?.isAvailable != settings.isAvailable) {
+        await _firebaseService.updateMediumData(currentMediumId, {
+          'isAvailable': settings.isAvailable,
+        });
+        mediumProfile.value = mediumProfile.value?.copyWith(isAvailable: settings.isAvailable);
+      }
 
       availabilitySettings.value = settings;
 
@@ -455,20 +508,22 @@ class MediumAdminController extends GetxController {
       final settingsDoc = await _firebaseService.getMediumSettings(currentMediumId);
 
       Map<String, dynamic> combinedData = {};
+      Map<String, dynamic> rawSettings = {};
 
       if (availabilityDoc.exists) {
-        final availabilityData = _sanitizeFirestoreData(availabilityDoc.data() as Map<String, dynamic>);
-        combinedData.addAll(availabilityData);
+        final rawAvailability = availabilityDoc.data() as Map<String, dynamic>;
+        _availabilitySync.seed(rawAvailability);
+        combinedData.addAll(_sanitizeFirestoreData(rawAvailability));
       }
 
       if (settingsDoc.exists) {
-        final settingsData = _sanitizeFirestoreData(settingsDoc.data() as Map<String, dynamic>);
-        combinedData.addAll(settingsData);
+        rawSettings = settingsDoc.data() as Map<String, dynamic>;
+        combinedData.addAll(_sanitizeFirestoreData(rawSettings));
       }
 
       if (combinedData.isNotEmpty) {
         final settings = AvailabilitySettingsModel.fromMap(combinedData);
-        updateFromSettings(settings);
+        _settingsSync.applyRemote(rawSettings, () => updateFromSettings(settings));
       }
 
       debugPrint('✅ Configurações de disponibilidade carregadas');
@@ -483,10 +538,14 @@ class MediumAdminController extends GetxController {
     try {
       isSaving.value = true;
 
-      await _firebaseService.updateMediumSettings(currentMediumId, newSettings);
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      _settingsSync.stageAll(newSettings);
+      final success = await _settingsSync.flush();
+      _settingsSync.logMetrics();
+
+      if (!success) {
+        Get.snackbar('Erro', 'Erro ao atualizar configurações');
+        return false;
+      }
 
       settings.addAll(newSettings);
 
@@ -502,6 +561,22 @@ class MediumAdminController extends GetxController {
     }
   }
 
+  Future<bool> savePendingSettings() async {
+    try {
+      isSaving.value = true;
+
+      final results = await Future.wait([
+        _settingsSync.flush(),
+        _availabilitySync.flush(),
+      ]);
+      _settingsSync.logMetrics();
+
+      return !results.contains(false);
+    } finally {
+      isSaving.value = false;
+    }
+  }
+
   Future<bool> updateProfile(Map<String, dynamic> profileData) async {
     try {
       isSaving.value = true;
@@ -532,11 +607,12 @@ class MediumAdminController extends GetxController {
     try {
       final newStatus = !isAvailable.value;
 
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'isAvailable': newStatus,
-        'status': newStatus ? 'available' : 'offline',
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      final success = await _presenceService.setStatus(
+        currentMediumId,
+        newStatus ? 'available' : 'offline',
+        isAvailable: newStatus,
+      );
+      if (!success) throw Exception('Falha ao atualizar presença');
 
       isAvailable.value = newStatus;
       currentStatus.value = newStatus ? 'available' : 'offline';
@@ -550,16 +626,8 @@ class MediumAdminController extends GetxController {
 
   Future<void> updateStatus(String status, [String? message]) async {
     try {
-      final updateData = {
-        'status': status,
-        'updatedAt': DateTime.now().toIso8601String(),
-      };
-
-      if (message != null) {
-        updateData['statusMessage'] = message;
-      }
-
-      await _firebaseService.updateMediumData(currentMediumId, updateData);
+      final success = await _presenceService.setStatus(currentMediumId, status, message: message);
+      if (!success) throw Exception('Falha ao atualizar presença');
 
       currentStatus.value = status;
       if (message != null) {
@@ -595,10 +663,10 @@ class MediumAdminController extends GetxController {
 
         availability['blockedDates'] = blockedDates;
 
-        await _firebaseService.updateMediumAvailability(currentMediumId, {
-          'blockedDates': blockedDates.map((d) => d.toIso8601String()).toList(),
-          'updatedAt': DateTime.now().toIso8601String(),
-        });
+        _availabilitySync.stage('blockedDates', blockedDates.map((d) => d.toIso8601String()).toList());
+        if (!await _availabilitySync.flush()) {
+          throw Exception('Falha ao sincronizar datas bloqueadas');
+        }
 
         debugPrint('✅ Data bloqueada: ${date.toString()}');
         Get.snackbar('Sucesso', 'Data bloqueada com sucesso');
@@ -618,10 +686,10 @@ class MediumAdminController extends GetxController {
 
       availability['blockedDates'] = blockedDates;
 
-      await _firebaseService.updateMediumAvailability(currentMediumId, {
-        'blockedDates': blockedDates.map((d) => d.toIso8601String()).toList(),
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      _availabilitySync.stage('blockedDates', blockedDates.map((d) => d.toIso8601String()).toList());
+      if (!await _availabilitySync.flush()) {
+        throw Exception('Falha ao sincronizar datas bloqueadas');
+      }
 
       debugPrint('✅ Data desbloqueada: ${date.toString()}');
       Get.snackbar('Sucesso', 'Data desbloqueada com sucesso');
@@ -772,11 +840,15 @@ class MediumAdminController extends GetxController {
     try {
       isSaving.value = true;
 
-      availabilityData['updatedAt'] = DateTime.now().toIso8601String();
-
-      await _firebaseService.updateMediumAvailability(currentMediumId, availabilityData);
+      final previous = Map<String, dynamic>.from(availability);
       availability.value = availabilityData;
 
+      _availabilitySync.stageAll(availabilityData);
+      if (!await _availabilitySync.flush()) {
+        availability.value = previous;
+        throw Exception('Falha ao sincronizar disponibilidade');
+      }
+
       debugPrint('✅ Disponibilidade atualizada');
       Get.snackbar('Sucesso', 'Disponibilidade atualizada com sucesso!');
       return true;
@@ -811,11 +883,12 @@ class MediumAdminController extends GetxController {
     try {
       final newStatus = !isAvailable.value;
 
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'isAvailable': newStatus,
-        'status': newStatus ? 'available' : 'offline',
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      final success = await _presenceService.setStatus(
+        currentMediumId,
+        newStatus ? 'available' : 'offline',
+        isAvailable: newStatus,
+      );
+      if (!success) throw Exception('Falha ao atualizar presença');
 
       isAvailable.value = newStatus;
       currentStatus.value = newStatus ? 'available' : 'offline';
@@ -846,12 +919,7 @@ class MediumAdminController extends GetxController {
       customStatusMessage.value = message ?? '';
       isOnline.value = status != 'offline';
 
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'status': status,
-        'statusMessage': message ?? '',
-        'lastSeen': DateTime.now().toIso8601String(),
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      await _presenceService.setStatus(currentMediumId, status, message: message ?? '');
 
       debugPrint('✅ Status online atualizado: $status');
     } catch (e) {
@@ -941,11 +1009,12 @@ class MediumAdminController extends GetxController {
 
   Future<bool> updateMediumAvailabilityStatus(bool newStatus) async {
     try {
-      await _firebaseService.updateMediumData(currentMediumId, {
-        'isAvailable': newStatus,
-        'lastSeen': DateTime.now().toIso8601String(),
-        'updatedAt': DateTime.now().toIso8601String(),
-      });
+      final success = await _presenceService.setStatus(
+        currentMediumId,
+        newStatus ? 'available' : 'offline',
+        isAvailable: newStatus,
+      );
+      if (!success) throw Exception('Falha ao atualizar presença');
 
       isAvailable.value = newStatus;
 
@@ -1100,6 +1169,8 @@ class MediumAdminController extends GetxController {
   @override
   void onClose() {
     debugPrint('=== MediumAdminController.onClose() ===');
+    _settingsSync.dispose();
+    _availabilitySync.dispose();
     super.onClose();
   }
 }
@@ -187,23 +187,9 @@ class ProfileController extends GetxController {
 
       // Atualizar o modelo local
       if (mediumProfile.value != null) {
-        final currentData = mediumProfile.value!.toMap();
-        currentData.addAll(updateData);
-
-        // Garantir que updatedAt seja DateTime
-        if (currentData['updatedAt'] is String) {
-          currentData['updatedAt'] = DateTime.parse(currentData['updatedAt']);
-        }
-
-        final sanitizedData = _sanitizeTimestamps(currentData);
-        mediumProfile.value = MediumModel.fromMap(sanitizedData, currentMediumId!);
-      }
-
-      // Sincronizar com MediumAdminController
-      final adminController = _adminController;
-      if (adminController != null) {
-        await adminController.loadMediumProfile();
+        _replaceProfile(_applyPatch(mediumProfile.value!, updateData));
       }
+      _syncAdminProfile();
 
       Get.snackbar(
         'Perfil Atualizado',
@@ -270,19 +256,10 @@ class ProfileController extends GetxController {
 
     try {
       debugPrint('=== _uploadProfileImage() ===');
-      isUploadingImage.value = true;
-
-      final fileName = 'profile_${currentMediumId}_${DateTime.now().millisecondsSinceEpoch}.jpg';
-      final ref = _firebaseService.storage.ref().child('medium_profiles').child(fileName);
-
-      final uploadTask = ref.putFile(selectedImage.value!);
-      final snapshot = await uploadTask;
-      final downloadUrl = await snapshot.ref.getDownloadURL();
 
-      final success = await updateProfile(imageUrl: downloadUrl);
+      final success = await _uploadAndPatchImage(selectedImage.value!);
 
       if (success) {
-        selectedImage.value = null;
         Get.snackbar(
           'Foto Atualizada',
           'Sua foto de perfil foi atualizada com sucesso',
@@ -293,11 +270,207 @@ class ProfileController extends GetxController {
     } catch (e) {
       debugPrint('❌ Erro ao fazer upload da imagem: $e');
       Get.snackbar('Erro', 'Erro ao fazer upload da imagem');
+    }
+  }
+
+  /// Salva apenas os campos que mudaram em relação ao perfil carregado.
+  ///
+  /// O estado local é atualizado na hora (otimista) e a escrita dos textos
+  /// roda em paralelo com o upload da [image]; a URL da imagem é gravada
+  /// quando o upload termina. Campos mantidos pelo servidor (avaliação,
+  /// contadores, datas) nunca são enviados. Se a escrita falhar, os campos
+  /// alterados voltam ao valor anterior.
+  Future<bool> saveProfileChanges({
+    String? name,
+    String? email,
+    String? phone,
+    String? bio,
+    String? experience,
+    List<String>? specialties,
+    double? pricePerMinute,
+    File? image,
+  }) {
+    final mediumId = currentMediumId;
+    final previous = mediumProfile.value;
+    if (mediumId == null || previous == null) return Future.value(false);
+
+    final patch = diffProfile(
+      previous,
+      name: name,
+      email: email,
+      phone: phone,
+      bio: bio,
+      experience: experience,
+      specialties: specialties,
+      pricePerMinute: pricePerMinute,
+    );
+
+    if (patch.isEmpty && image == null) {
+      debugPrint('ℹ️ Nenhuma alteração no perfil para salvar');
+      return Future.value(true);
+    }
+
+    debugPrint('=== ProfileController.saveProfileChanges() ===');
+    debugPrint('Campos alterados: ${patch.keys.join(', ')}');
+
+    if (patch.isNotEmpty) {
+      _replaceProfile(_applyPatch(previous, patch));
+    }
+
+    return Future.wait([
+      if (patch.isNotEmpty) _writeProfilePatch(mediumId, patch, previous),
+      if (image != null) _uploadAndPatchImage(image),
+    ]).then((results) => !results.contains(false));
+  }
+
+  /// Campos do formulário que diferem do perfil [base]; `null` significa
+  /// campo ausente do formulário, enquanto texto vazio limpa telefone,
+  /// bio e experiência (nome e email vazios são ignorados)
+  static Map<String, dynamic> diffProfile(
+      MediumModel base, {
+        String? name,
+        String? email,
+        String? phone,
+        String? bio,
+        String? experience,
+        List<String>? specialties,
+        double? pricePerMinute,
+      }) {
+    final patch = <String, dynamic>{};
+
+    if (name != null && name.isNotEmpty && name != base.name) patch['name'] = name;
+    if (email != null && email.isNotEmpty && email != base.email) patch['email'] = email;
+    if (phone != null && phone != base.phone) patch['phone'] = phone;
+    if (bio != null && bio != base.bio) {
+      patch['bio'] = bio;
+      patch['biography'] = bio; // Para compatibilidade
+      patch['description'] = bio; // Para compatibilidade
+    }
+    if (experience != null && experience != base.experience) patch['experience'] = experience;
+    if (specialties != null && !listEquals(specialties, base.specialties)) {
+      patch['specialties'] = List<String>.from(specialties);
+    }
+    if (pricePerMinute != null && pricePerMinute != base.pricePerMinute) {
+      patch['pricePerMinute'] = pricePerMinute;
+    }
+
+    return patch;
+  }
+
+  Future<bool> _writeProfilePatch(String mediumId, Map<String, dynamic> patch, MediumModel previous) async {
+    try {
+      isSaving.value = true;
+
+      await _firebaseService.updateMediumData(mediumId, {
+        ...patch,
+        'updatedAt': DateTime.now().toIso8601String(),
+      });
+      _syncAdminProfile();
+
+      Get.snackbar(
+        'Perfil Atualizado',
+        'Suas informações foram atualizadas com sucesso',
+        backgroundColor: Colors.green,
+        colorText: Colors.white,
+      );
+
+      debugPrint('✅ ${patch.length} campo(s) do perfil atualizado(s)');
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao atualizar perfil: $e');
+
+      final current = mediumProfile.value;
+      if (current != null) {
+        _replaceProfile(_restoreFields(current, previous, patch.keys));
+        _syncAdminProfile();
+      }
+
+      Get.snackbar('Erro', 'Erro ao atualizar perfil: $e');
+      return false;
+    } finally {
+      isSaving.value = false;
+    }
+  }
+
+  Future<bool> _uploadAndPatchImage(File image) async {
+    final mediumId = currentMediumId;
+    if (mediumId == null) return false;
+
+    try {
+      isUploadingImage.value = true;
+      selectedImage.value = image;
+
+      final fileName = 'profile_${mediumId}_${DateTime.now().millisecondsSinceEpoch}.jpg';
+      final ref = _firebaseService.storage.ref().child('medium_profiles').child(fileName);
+
+      final snapshot = await ref.putFile(image);
+      final downloadUrl = await snapshot.ref.getDownloadURL();
+
+      await _firebaseService.updateMediumData(mediumId, {
+        'imageUrl': downloadUrl,
+        'updatedAt': DateTime.now().toIso8601String(),
+      });
+
+      final current = mediumProfile.value;
+      if (current != null) {
+        _replaceProfile(current.copyWith(imageUrl: downloadUrl, updatedAt: DateTime.now()));
+      }
+      _syncAdminProfile();
+
+      debugPrint('✅ Imagem do perfil atualizada');
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao fazer upload da imagem: $e');
+      Get.snackbar('Erro', 'Erro ao fazer upload da imagem');
+      return false;
     } finally {
+      selectedImage.value = null;
       isUploadingImage.value = false;
     }
   }
 
+  MediumModel _applyPatch(MediumModel base, Map<String, dynamic> patch) {
+    return base.copyWith(
+      name: patch['name'],
+      email: patch['email'],
+      phone: patch['phone'],
+      bio: patch['bio'],
+      biography: patch['biography'],
+      description: patch['description'],
+      experience: patch['experience'],
+      specialties: patch['specialties'] != null ? List<String>.from(patch['specialties']) : null,
+      pricePerMinute: (patch['pricePerMinute'] as num?)?.toDouble(),
+      imageUrl: patch['imageUrl'],
+      updatedAt: DateTime.now(),
+    );
+  }
+
+  /// Volta os campos [keys] de [current] ao valor que tinham em [previous],
+  /// inclusive valores nulos, que o `copyWith` ignoraria
+  MediumModel _restoreFields(MediumModel current, MediumModel previous, Iterable<String> keys) {
+    final previousData = previous.toMap();
+    return MediumModel.fromMap({
+      ...current.toMap(),
+      for (final key in keys) key: previousData[key],
+      'updatedAt': DateTime.now().toIso8601String(),
+    }, current.id);
+  }
+
+  // Cada versão local recebe um `updatedAt` novo, então o `==` do
+  // MediumModel a distingue da anterior; o trigger notifica mesmo assim
+  // se duas versões caírem no mesmo instante
+  void _replaceProfile(MediumModel profile) {
+    mediumProfile.trigger(profile);
+  }
+
+  void _syncAdminProfile() {
+    final adminController = _adminController;
+    final profile = mediumProfile.value;
+    if (adminController == null || profile == null) return;
+
+    adminController.mediumProfile.trigger(profile);
+  }
+
   Future<void> removeProfileImage() async {
     if (currentMediumId == null) return;
 
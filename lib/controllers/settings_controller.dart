@@ -1,12 +1,21 @@
 import 'package:flutter/material.dart';
 import 'package:get/get.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
+import 'package:oraculum_medium/models/availability_settings_model.dart';
+import 'package:oraculum_medium/services/firebase_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
+import 'package:oraculum_medium/services/settings_sync_engine.dart';
 
 class SettingsController extends GetxController {
   final MediumService _mediumService = Get.find<MediumService>();
+  final FirebaseService _firebaseService = Get.find<FirebaseService>();
   final AuthController _authController = Get.find<AuthController>();
 
+  late final SettingsSyncEngine _sync = SettingsSyncEngine(
+    debugLabel: 'SettingsController',
+    documentRef: () => _firebaseService.mediumSettingsCollection.doc(currentMediumId!),
+  );
+
   final RxBool isLoading = false.obs;
   final RxBool isSaving = false.obs;
   final RxMap<String, dynamic> settings = RxMap<String, dynamic>({});
@@ -58,9 +67,55 @@ class SettingsController extends GetxController {
   @override
   void onInit() {
     super.onInit();
+    _bindSync();
     loadSettings();
   }
 
+  void _bindSync() {
+    _sync.bind('notifications.newAppointments', newAppointments);
+    _sync.bind('notifications.appointmentReminders', appointmentReminders);
+    _sync.bind('notifications.paymentNotifications', paymentNotifications);
+    _sync.bind('notifications.reviewNotifications', reviewNotifications);
+    _sync.bind('notifications.systemUpdates', systemUpdates);
+    _sync.bind('notifications.promotionalEmails', promotionalEmails);
+    _sync.bind('notifications.maintenanceAlerts', maintenanceAlerts);
+
+    _sync.bind('autoAcceptAppointments', autoAcceptAppointments);
+    _sync.bind('bufferTimeBetweenAppointments', bufferTimeBetweenAppointments, validate: AvailabilitySettingsModel.isValidBufferTime);
+    _sync.bind('maxDailyAppointments', maxDailyAppointments, validate: AvailabilitySettingsModel.isValidMaxDailyAppointments);
+    _sync.bind('allowCancellations', allowCancellations);
+    _sync.bind('cancellationDeadlineHours', cancellationDeadlineHours, validate: AvailabilitySettingsModel.isValidCancellationDeadline);
+
+    _sync.bind('interface.isDarkMode', isDarkMode);
+    _sync.bind('interface.language', language);
+    _sync.bind('interface.timezone', timezone);
+    _sync.bind('interface.enableAnimations', enableAnimations);
+    _sync.bind('interface.enableHapticFeedback', enableHapticFeedback);
+    _sync.bind('interface.defaultCurrency', defaultCurrency);
+
+    _sync.bind('privacy.showOnlineStatus', showOnlineStatus);
+    _sync.bind('privacy.allowDirectMessages', allowDirectMessages);
+    _sync.bind('privacy.shareAnalytics', shareAnalytics);
+    _sync.bind('privacy.sharePerformanceData', sharePerformanceData);
+    _sync.bind('privacy.allowProfileIndexing', allowProfileIndexing);
+
+    _sync.bind('security.enableTwoFactor', enableTwoFactor);
+    _sync.bind('security.enableEmailVerification', enableEmailVerification);
+    _sync.bind('security.logSecurityEvents', logSecurityEvents);
+    _sync.bind('security.requirePasswordChange', requirePasswordChange);
+
+    _sync.bind('audio.soundVolume', soundVolume,
+        decode: (value) => (value as num).toDouble(), validate: _isValidSoundVolume);
+    _sync.bind('audio.enableNotificationSounds', enableNotificationSounds);
+    _sync.bind('audio.enableVibration', enableVibration);
+    _sync.bind('audio.notificationTone', notificationTone);
+
+    _sync.bind('backup.enableDataBackup', enableDataBackup);
+    _sync.bind('backup.backupFrequency', backupFrequency);
+    _sync.bind('backup.autoSync', autoSync);
+    _sync.bind('backup.compressBackups', compressBackups);
+  }
+
   Future<void> loadSettings() async {
     if (currentMediumId == null) return;
 
@@ -71,7 +126,7 @@ class SettingsController extends GetxController {
       final settingsData = await _mediumService.getMediumSettings(currentMediumId!);
       settings.value = settingsData;
 
-      _parseSettings(settingsData);
+      _sync.applyRemote(settingsData, () => _parseSettings(settingsData));
 
       debugPrint('✅ Configurações carregadas');
     } catch (e) {
@@ -194,7 +249,9 @@ class SettingsController extends GetxController {
 
       final settingsData = _buildSettingsData();
 
-      final success = await _mediumService.updateMediumSettings(currentMediumId!, settingsData);
+      _sync.stageAll(settingsData);
+      final success = await _sync.flush();
+      _sync.logMetrics();
 
       if (success) {
         settings.value = settingsData;
@@ -408,22 +465,22 @@ class SettingsController extends GetxController {
   }
 
   Future<bool> validateSettings() async {
-    if (bufferTimeBetweenAppointments.value < 5 || bufferTimeBetweenAppointments.value > 60) {
+    if (!AvailabilitySettingsModel.isValidBufferTime(bufferTimeBetweenAppointments.value)) {
       Get.snackbar('Erro', 'Tempo de buffer deve estar entre 5 e 60 minutos');
       return false;
     }
 
-    if (maxDailyAppointments.value < 1 || maxDailyAppointments.value > 50) {
-      Get.snackbar('Erro', 'Máximo de consultas diárias deve estar entre 1 e 50');
+    if (!AvailabilitySettingsModel.isValidMaxDailyAppointments(maxDailyAppointments.value)) {
+      Get.snackbar('Erro', 'Máximo de consultas diárias deve estar entre 1 e 20');
       return false;
     }
 
-    if (cancellationDeadlineHours.value < 1 || cancellationDeadlineHours.value > 168) {
+    if (!AvailabilitySettingsModel.isValidCancellationDeadline(cancellationDeadlineHours.value)) {
       Get.snackbar('Erro', 'Prazo de cancelamento deve estar entre 1 e 168 horas');
       return false;
     }
 
-    if (soundVolume.value < 0.0 || soundVolume.value > 1.0) {
+    if (!_isValidSoundVolume(soundVolume.value)) {
       Get.snackbar('Erro', 'Volume do som deve estar entre 0 e 1');
       return false;
     }
@@ -431,6 +488,10 @@ class SettingsController extends GetxController {
     return true;
   }
 
+  // As regras de agenda vêm do AvailabilitySettingsModel; o volume não
+  // pertence a nenhum modelo
+  static bool _isValidSoundVolume(double volume) => volume >= 0.0 && volume <= 1.0;
+
   Future<void> clearCache() async {
     try {
       debugPrint('=== clearCache() ===');
@@ -479,4 +540,10 @@ class SettingsController extends GetxController {
       'requirePasswordChange': requirePasswordChange.value,
     };
   }
+
+  @override
+  void onClose() {
+    _sync.dispose();
+    super.onClose();
+  }
 }
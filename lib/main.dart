@@ -6,8 +6,11 @@ import 'package:intl/date_symbol_data_local.dart';
 import 'package:oraculum_medium/config/routes.dart';
 import 'package:oraculum_medium/config/theme.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
+import 'package:oraculum_medium/services/appointment_scheduler_service.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
 import 'package:oraculum_medium/services/medium_service.dart';
+import 'package:oraculum_medium/services/presence_service.dart';
 import 'firebase_options.dart';
 
 void main() async {
@@ -25,7 +28,10 @@ void main() async {
   await initializeDateFormatting('pt_BR', null);
 
   Get.put(FirebaseService(), permanent: true);
+  Get.put(AppointmentAdmissionService(), permanent: true);
   Get.put(MediumService(), permanent: true);
+  Get.put(PresenceService(), permanent: true);
+  Get.put(AppointmentSchedulerService(), permanent: true);
   Get.put(AuthController(), permanent: true);
 
   runApp(const OraculumMediumApp());
@@ -171,6 +171,9 @@ class AppointmentModel {
   bool get isConfirmed => status == 'confirmed';
   bool get isCompleted => status == 'completed';
   bool get isCancelled => status == 'cancelled' || status == 'canceled';
+  bool get isExpired => status == 'expired';
+  bool get isNoShow => status == 'no_show';
+  bool get isRejected => status == 'rejected';
 
   String get statusText {
     switch (status) {
@@ -183,6 +186,12 @@ class AppointmentModel {
       case 'cancelled':
       case 'canceled':
         return 'Cancelado';
+      case 'expired':
+        return 'Expirado';
+      case 'no_show':
+        return 'Não compareceu';
+      case 'rejected':
+        return 'Recusado';
       default:
         return 'Desconhecido';
     }
@@ -134,21 +134,30 @@ class AvailabilitySettingsModel {
   }
 
   bool validate() {
-    if (consultationDurations.isEmpty) {
+    if (!isValidConsultationDurations(consultationDurations)) {
       return false;
     }
 
-    if (bufferTime < 5 || bufferTime > 60) {
+    if (!isValidBufferTime(bufferTime)) {
       return false;
     }
 
-    if (maxDailyAppointments < 1 || maxDailyAppointments > 20) {
+    if (!isValidMaxDailyAppointments(maxDailyAppointments)) {
       return false;
     }
 
     return true;
   }
 
+  // Regras de cada campo, usadas também pela sincronização automática
+  static bool isValidConsultationDurations(List<int> durations) => durations.isNotEmpty;
+
+  static bool isValidBufferTime(int minutes) => minutes >= 5 && minutes <= 60;
+
+  static bool isValidMaxDailyAppointments(int count) => count >= 1 && count <= 20;
+
+  static bool isValidCancellationDeadline(int hours) => hours >= 1 && hours <= 168;
+
   static Map<String, dynamic> _getDefaultAvailability() {
     return {
       'monday': {'isAvailable': true, 'startTime': '09:00', 'endTime': '18:00', 'breaks': []},
@@ -209,10 +209,13 @@ class MediumModel {
     return 'MediumModel(id: $id, name: $name, email: $email, isActive: $isActive, isAvailable: $isAvailable)';
   }
 
+  /// Mesmo médium na mesma versão; o `updatedAt` distingue as versões
+  /// locais de um perfil editado, que de outra forma seriam iguais para
+  /// as variáveis reativas
   @override
   bool operator ==(Object other) {
     if (identical(this, other)) return true;
-    return other is MediumModel && other.id == id;
+    return other is MediumModel && other.id == id && other.updatedAt == updatedAt;
   }
 
   @override
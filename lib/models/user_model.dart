@@ -1,4 +1,5 @@
 import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:oraculum_medium/utils/zodiac_utils.dart';
 
 class UserModel {
   final String id;
@@ -112,24 +113,7 @@ class UserModel {
   }
 
   /// Retorna o signo zodiacal baseado na data de nascimento
-  String get zodiacSign {
-    final day = birthDate!.day;
-    final month = birthDate!.month;
-
-    if ((month == 1 && day >= 20) || (month == 2 && day <= 18)) return 'Aquário';
-    if ((month == 2 && day >= 19) || (month == 3 && day <= 20)) return 'Peixes';
-    if ((month == 3 && day >= 21) || (month == 4 && day <= 19)) return 'Áries';
-    if ((month == 4 && day >= 20) || (month == 5 && day <= 20)) return 'Touro';
-    if ((month == 5 && day >= 21) || (month == 6 && day <= 20)) return 'Gêmeos';
-    if ((month == 6 && day >= 21) || (month == 7 && day <= 22)) return 'Câncer';
-    if ((month == 7 && day >= 23) || (month == 8 && day <= 22)) return 'Leão';
-    if ((month == 8 && day >= 23) || (month == 9 && day <= 22)) return 'Virgem';
-    if ((month == 9 && day >= 23) || (month == 10 && day <= 22)) return 'Libra';
-    if ((month == 10 && day >= 23) || (month == 11 && day <= 21)) return 'Escorpião';
-    if ((month == 11 && day >= 22) || (month == 12 && day <= 21)) return 'Sagitário';
-
-    return 'Capricórnio';
-  }
+  String get zodiacSign => ZodiacUtils.getZodiacSignFromDate(birthDate!);
 
   /// Retorna um texto amigável para o gênero
   String get genderDisplay {
@@ -635,6 +635,8 @@ class _AppointmentDetailsScreenState extends State<AppointmentDetailsScreen> {
       case 'cancelled':
       case 'canceled':
         return const Color(0xFFF44336);
+      case 'rejected':
+        return const Color(0xFF795548);
       default:
         return const Color(0xFF9E9E9E);
     }
@@ -651,6 +653,8 @@ class _AppointmentDetailsScreenState extends State<AppointmentDetailsScreen> {
       case 'cancelled':
       case 'canceled':
         return Icons.cancel;
+      case 'rejected':
+        return Icons.block;
       default:
         return Icons.help;
     }
@@ -121,6 +121,7 @@ class _AppointmentsListScreenState extends State<AppointmentsListScreen> {
       {'key': 'confirmed', 'label': 'Confirmadas'},
       {'key': 'completed', 'label': 'Concluídas'},
       {'key': 'cancelled', 'label': 'Canceladas'},
+      {'key': 'rejected', 'label': 'Recusadas'},
     ];
 
     return SingleChildScrollView(
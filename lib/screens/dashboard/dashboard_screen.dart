@@ -5,6 +5,7 @@ import 'package:oraculum_medium/config/routes.dart';
 import 'package:oraculum_medium/config/theme.dart';
 import 'package:oraculum_medium/controllers/auth_controller.dart';
 import 'package:oraculum_medium/controllers/dashboard_controller.dart';
+import 'package:oraculum_medium/utils/rebuild_profiler.dart';
 import 'package:oraculum_medium/widgets/appointment_card.dart';
 import 'package:oraculum_medium/widgets/stats_card.dart';
 import 'package:flutter_animate/flutter_animate.dart';
@@ -25,6 +26,7 @@ class DashboardScreen extends StatelessWidget {
         decoration: BoxDecoration(gradient: AppTheme.primaryGradient),
         child: SafeArea(
           child: Obx(() {
+            RebuildProfiler.record('dashboard.body');
             if (controller.isLoading.value) {
               return const Center(
                 child: CircularProgressIndicator(
@@ -463,41 +465,45 @@ class DashboardScreen extends StatelessWidget {
   }
 
   Widget _buildStatusCard(DashboardController controller, bool isLargeScreen) {
-    return Container(
-      padding: EdgeInsets.all(isLargeScreen ? 24 : 20),
-      decoration: AppTheme.cardDecoration,
-      child: Row(
-        children: [
-          Container(
-            width: isLargeScreen ? 14 : 12,
-            height: isLargeScreen ? 14 : 12,
-            decoration: BoxDecoration(
-              shape: BoxShape.circle,
-              color: controller.getStatusColor(),
+    return Obx(() {
+      RebuildProfiler.record('dashboard.statusCard');
+      final isOnline = controller.isOnline.value;
+      return Container(
+        padding: EdgeInsets.all(isLargeScreen ? 24 : 20),
+        decoration: AppTheme.cardDecoration,
+        child: Row(
+          children: [
+            Container(
+              width: isLargeScreen ? 14 : 12,
+              height: isLargeScreen ? 14 : 12,
+              decoration: BoxDecoration(
+                shape: BoxShape.circle,
+                color: controller.getStatusColor(),
+              ),
+            ).animate().scale(
+              delay: const Duration(milliseconds: 600),
+              duration: const Duration(milliseconds: 400),
             ),
-          ).animate().scale(
-            delay: const Duration(milliseconds: 600),
-            duration: const Duration(milliseconds: 400),
-          ),
-          SizedBox(width: isLargeScreen ? 16 : 12),
-          Expanded(
-            child: Text(
-              'Status: ${controller.getStatusText()}',
-              style: TextStyle(
-                fontSize: isLargeScreen ? 18 : 16,
-                fontWeight: FontWeight.w500,
-                color: Colors.white,
+            SizedBox(width: isLargeScreen ? 16 : 12),
+            Expanded(
+              child: Text(
+                'Status: ${controller.getStatusText()}',
+                style: TextStyle(
+                  fontSize: isLargeScreen ? 18 : 16,
+                  fontWeight: FontWeight.w500,
+                  color: Colors.white,
+                ),
               ),
             ),
-          ),
-          Switch(
-            value: controller.isOnline.value,
-            onChanged: (_) => controller.toggleOnlineStatus(),
-            activeColor: AppTheme.primaryColor,
-          ),
-        ],
-      ),
-    ).animate().fadeIn(
+            Switch(
+              value: isOnline,
+              onChanged: (_) => controller.toggleOnlineStatus(),
+              activeColor: AppTheme.primaryColor,
+            ),
+          ],
+        ),
+      );
+    }).animate().fadeIn(
       delay: const Duration(milliseconds: 300),
       duration: const Duration(milliseconds: 500),
     ).slideY(
@@ -3,8 +3,9 @@ import 'package:get/get.dart';
 import 'package:intl/intl.dart';
 import 'package:oraculum_medium/config/theme.dart';
 import 'package:oraculum_medium/controllers/earnings_controller.dart';
+import 'package:oraculum_medium/utils/rebuild_profiler.dart';
+import 'package:oraculum_medium/widgets/earnings_chart.dart';
 import 'package:flutter_animate/flutter_animate.dart';
-import 'package:fl_chart/fl_chart.dart';
 
 class EarningsScreen extends StatelessWidget {
   const EarningsScreen({super.key});
@@ -25,6 +26,7 @@ class EarningsScreen extends StatelessWidget {
               _buildHeader(isLargeScreen),
               Expanded(
                 child: Obx(() {
+                  RebuildProfiler.record('earnings.body');
                   if (controller.isLoading.value) {
                     return const Center(
                       child: CircularProgressIndicator(
@@ -138,61 +140,64 @@ class EarningsScreen extends StatelessWidget {
   }
 
   Widget _buildSummaryCards(EarningsController controller, bool isLargeScreen) {
-    return Column(
-      children: [
-        Row(
-          children: [
-            Expanded(
-              child: _buildSummaryCard(
-                'Saldo Atual',
-                'R\$ ${controller.totalEarnings.value.toStringAsFixed(2)}',
-                'Disponível na carteira',
-                Icons.account_balance_wallet,
-                const Color(0xFF00C851),
-                isLargeScreen,
+    return Obx(() {
+      RebuildProfiler.record('earnings.summaryCards');
+      return Column(
+        children: [
+          Row(
+            children: [
+              Expanded(
+                child: _buildSummaryCard(
+                  'Saldo Atual',
+                  'R\$ ${controller.totalEarnings.value.toStringAsFixed(2)}',
+                  'Disponível na carteira',
+                  Icons.account_balance_wallet,
+                  const Color(0xFF00C851),
+                  isLargeScreen,
+                ),
               ),
-            ),
-            SizedBox(width: isLargeScreen ? 16 : 12),
-            Expanded(
-              child: _buildSummaryCard(
-                'Este Mês',
-                'R\$ ${controller.monthlyEarnings.value.toStringAsFixed(2)}',
-                'Ganhos do período',
-                Icons.calendar_month,
-                AppTheme.primaryColor,
-                isLargeScreen,
+              SizedBox(width: isLargeScreen ? 16 : 12),
+              Expanded(
+                child: _buildSummaryCard(
+                  'Este Mês',
+                  'R\$ ${controller.monthlyEarnings.value.toStringAsFixed(2)}',
+                  'Ganhos do período',
+                  Icons.calendar_month,
+                  AppTheme.primaryColor,
+                  isLargeScreen,
+                ),
               ),
-            ),
-          ],
-        ),
-        SizedBox(height: isLargeScreen ? 16 : 12),
-        Row(
-          children: [
-            Expanded(
-              child: _buildSummaryCard(
-                'Total Comissões',
-                'R\$ ${(controller.totalEarnings.value * 0.25).toStringAsFixed(2)}',
-                '20% para o Oraculum',
-                Icons.business,
-                Colors.orange,
-                isLargeScreen,
+            ],
+          ),
+          SizedBox(height: isLargeScreen ? 16 : 12),
+          Row(
+            children: [
+              Expanded(
+                child: _buildSummaryCard(
+                  'Total Comissões',
+                  'R\$ ${(controller.totalEarnings.value * 0.25).toStringAsFixed(2)}',
+                  '20% para o Oraculum',
+                  Icons.business,
+                  Colors.orange,
+                  isLargeScreen,
+                ),
               ),
-            ),
-            SizedBox(width: isLargeScreen ? 16 : 12),
-            Expanded(
-              child: _buildSummaryCard(
-                'Total Consultas',
-                '${controller.totalConsultations.value}',
-                'Finalizadas com sucesso',
-                Icons.event_available,
-                AppTheme.accentColor,
-                isLargeScreen,
+              SizedBox(width: isLargeScreen ? 16 : 12),
+              Expanded(
+                child: _buildSummaryCard(
+                  'Total Consultas',
+                  '${controller.totalConsultations.value}',
+                  'Finalizadas com sucesso',
+                  Icons.event_available,
+                  AppTheme.accentColor,
+                  isLargeScreen,
+                ),
               ),
-            ),
-          ],
-        ),
-      ],
-    ).animate().fadeIn(
+            ],
+          ),
+        ],
+      );
+    }).animate().fadeIn(
       delay: const Duration(milliseconds: 200),
       duration: const Duration(milliseconds: 600),
     ).slideY(
@@ -389,7 +394,7 @@ class EarningsScreen extends StatelessWidget {
           Container(
             height: isLargeScreen ? 200 : 160,
             width: double.infinity,
-            child: Obx(() => _buildLineChart(controller, isLargeScreen)),
+            child: EarningsChart(controller: controller, isLargeScreen: isLargeScreen),
           ),
           SizedBox(height: isLargeScreen ? 16 : 12),
           _buildChartLegend(isLargeScreen),
@@ -407,42 +412,6 @@ class EarningsScreen extends StatelessWidget {
 
 
 
-  Widget _buildEmptyChart(bool isLargeScreen) {
-    return Container(
-      decoration: BoxDecoration(
-        color: Colors.white.withOpacity(0.05),
-        borderRadius: BorderRadius.circular(12),
-      ),
-      child: Center(
-        child: Column(
-          mainAxisAlignment: MainAxisAlignment.center,
-          children: [
-            Icon(
-              Icons.show_chart,
-              color: Colors.white60,
-              size: isLargeScreen ? 48 : 40,
-            ),
-            SizedBox(height: 8),
-            Text(
-              'Sem dados para exibir',
-              style: TextStyle(
-                color: Colors.white60,
-                fontSize: isLargeScreen ? 16 : 14,
-              ),
-            ),
-            Text(
-              'Complete algumas consultas para ver o gráfico',
-              style: TextStyle(
-                color: Colors.white38,
-                fontSize: isLargeScreen ? 12 : 10,
-              ),
-            ),
-          ],
-        ),
-      ),
-    );
-  }
-
   Widget _buildChartLegend(bool isLargeScreen) {
     return Row(
       mainAxisAlignment: MainAxisAlignment.spaceEvenly,
@@ -500,23 +469,6 @@ class EarningsScreen extends StatelessWidget {
   }
 
 
-  double _calculateMaxY(List<Map<String, dynamic>> data) {
-    double maxValue = 0;
-    for (final item in data) {
-      final mediumAmount = item['mediumAmount'] as double;
-      if (mediumAmount > maxValue) {
-        maxValue = mediumAmount;
-      }
-    }
-    // Adicionar 20% de margem
-    return maxValue * 1.2;
-  }
-
-  double _calculateInterval(List<Map<String, dynamic>> data) {
-    final maxY = _calculateMaxY(data);
-    return maxY / 4; // Dividir em 4 intervalos
-  }
-
   Widget _buildHistorySection(EarningsController controller, bool isLargeScreen) {
     return Column(
       crossAxisAlignment: CrossAxisAlignment.start,
@@ -875,270 +827,4 @@ class EarningsScreen extends StatelessWidget {
     // Implementar seleção de data personalizada
     Get.back();
   }
-
-  Widget _buildLineChart(EarningsController controller, bool isLargeScreen) {
-    final chartData = _generateChartData(controller);
-
-    if (chartData.isEmpty) {
-      return _buildEmptyChart(isLargeScreen);
-    }
-
-    return LineChart(
-      LineChartData(
-        gridData: FlGridData(
-          show: true,
-          drawVerticalLine: false,
-          horizontalInterval: chartData.isNotEmpty ? _calculateInterval(chartData) : 100,
-          getDrawingHorizontalLine: (value) {
-            return const FlLine(
-              color: Colors.white12,
-              strokeWidth: 1,
-            );
-          },
-        ),
-        titlesData: FlTitlesData(
-          show: true,
-          rightTitles: const AxisTitles(
-            sideTitles: SideTitles(showTitles: false),
-          ),
-          topTitles: const AxisTitles(
-            sideTitles: SideTitles(showTitles: false),
-          ),
-          bottomTitles: AxisTitles(
-            sideTitles: SideTitles(
-              showTitles: true,
-              reservedSize: 30,
-              interval: 1,
-              getTitlesWidget: (double value, TitleMeta meta) {
-                return _buildBottomTitle(value.toInt(), controller);
-              },
-            ),
-          ),
-          leftTitles: AxisTitles(
-            sideTitles: SideTitles(
-              showTitles: true,
-              interval: chartData.isNotEmpty ? _calculateInterval(chartData) : 100,
-              reservedSize: isLargeScreen ? 50 : 40,
-              getTitlesWidget: (double value, TitleMeta meta) {
-                return _buildLeftTitle(value);
-              },
-            ),
-          ),
-        ),
-        borderData: FlBorderData(
-          show: false,
-        ),
-        minX: 0,
-        maxX: chartData.length.toDouble() - 1,
-        minY: 0,
-        maxY: chartData.isNotEmpty ? _calculateMaxY(chartData) : 1000,
-        lineBarsData: [
-          LineChartBarData(
-            spots: chartData.asMap().entries.map((entry) {
-              return FlSpot(entry.key.toDouble(), entry.value['mediumAmount']!);
-            }).toList(),
-            isCurved: true,
-            gradient: LinearGradient(
-              colors: [
-                const Color(0xFF00C851),
-                const Color(0xFF00C851).withOpacity(0.7),
-              ],
-            ),
-            barWidth: 3,
-            isStrokeCapRound: true,
-            dotData: const FlDotData(
-              show: true,
-            ),
-            belowBarData: BarAreaData(
-              show: true,
-              gradient: LinearGradient(
-                begin: Alignment.topCenter,
-                end: Alignment.bottomCenter,
-                colors: [
-                  const Color(0xFF00C851).withOpacity(0.3),
-                  const Color(0xFF00C851).withOpacity(0.1),
-                ],
-              ),
-            ),
-          ),
-          LineChartBarData(
-            spots: chartData.asMap().entries.map((entry) {
-              return FlSpot(entry.key.toDouble(), entry.value['oraculumAmount']!);
-            }).toList(),
-            isCurved: true,
-            color: Colors.orange,
-            barWidth: 2,
-            isStrokeCapRound: true,
-            dashArray: [5, 5],
-            dotData: const FlDotData(
-              show: true,
-            ),
-          ),
-        ],
-        lineTouchData: LineTouchData(
-          enabled: true,
-          touchTooltipData: LineTouchTooltipData(
-            getTooltipItems: (List<LineBarSpot> touchedBarSpots) {
-              return touchedBarSpots.map((barSpot) {
-                final flSpot = barSpot;
-                final index = flSpot.x.toInt();
-                if (index >= 0 && index < chartData.length) {
-                  final data = chartData[index];
-                  final isMainLine = barSpot.barIndex == 0;
-                  final value = isMainLine ?
-                  data['mediumAmount']! :
-                  data['oraculumAmount']!;
-                  final label = isMainLine ?
-                  'Seus Ganhos' :
-                  'Comissão Oraculum';
-
-                  return LineTooltipItem(
-                    '$label\n${data['date']}\nR\$ ${value.toStringAsFixed(2)}',
-                    TextStyle(
-                      color: isMainLine ? const Color(0xFF00C851) : Colors.orange,
-                      fontWeight: FontWeight.bold,
-                    ),
-                  );
-                }
-                return null;
-              }).toList();
-            },
-          ),
-          getTouchedSpotIndicator: (LineChartBarData barData, List<int> spotIndexes) {
-            return spotIndexes.map((spotIndex) {
-              final color = barData.gradient?.colors.first ??
-                  barData.color ??
-                  const Color(0xFF00C851);
-              return TouchedSpotIndicatorData(
-                FlLine(
-                  color: color.withOpacity(0.5),
-                  strokeWidth: 2,
-                ),
-                FlDotData(
-                  show: true,
-                  getDotPainter: (spot, percent, barData, index) {
-                    final color = barData.gradient?.colors.first ??
-                        barData.color ??
-                        const Color(0xFF00C851);
-                    return FlDotCirclePainter(
-                      radius: 6,
-                      color: Colors.white,
-                      strokeWidth: 2,
-                      strokeColor: color,
-                    );
-                  },
-                ),
-              );
-            }).toList();
-          },
-          handleBuiltInTouches: true,
-          touchSpotThreshold: 10,
-        ),
-      ),
-    );
-  }
-
-  List<Map<String, dynamic>> _generateChartData(EarningsController controller) {
-    final earnings = controller.earningsHistory;
-
-    if (earnings.isEmpty) {
-      return _generateSampleChartData();
-    }
-
-    final Map<String, Map<String, dynamic>> dailyEarnings = {};
-
-    for (final earning in earnings) {
-      final date = earning['date']?.toDate() ?? DateTime.now();
-      final dateKey = DateFormat('yyyy-MM-dd').format(date);
-      final mediumAmount = (earning['mediumAmount'] ?? 0.0).toDouble();
-      final oraculumAmount = (earning['oraculumAmount'] ?? 0.0).toDouble();
-
-      if (dailyEarnings.containsKey(dateKey)) {
-        dailyEarnings[dateKey]!['mediumAmount'] =
-            (dailyEarnings[dateKey]!['mediumAmount'] as double) + mediumAmount;
-        dailyEarnings[dateKey]!['oraculumAmount'] =
-            (dailyEarnings[dateKey]!['oraculumAmount'] as double) + oraculumAmount;
-      } else {
-        dailyEarnings[dateKey] = {
-          'mediumAmount': mediumAmount,
-          'oraculumAmount': oraculumAmount,
-          'dateTime': date,
-        };
-      }
-    }
-
-    final sortedEntries = dailyEarnings.entries.toList();
-    sortedEntries.sort((a, b) {
-      final dateA = a.value['dateTime'] as DateTime;
-      final dateB = b.value['dateTime'] as DateTime;
-      return dateA.compareTo(dateB);
-    });
-
-    final chartData = sortedEntries.map((entry) {
-      final date = entry.value['dateTime'] as DateTime;
-      return {
-        'date': DateFormat('dd/MM').format(date),
-        'shortDate': DateFormat('dd').format(date),
-        'mediumAmount': entry.value['mediumAmount'] as double,
-        'oraculumAmount': entry.value['oraculumAmount'] as double,
-        'fullDate': date,
-      };
-    }).toList();
-
-    final recentData = chartData.length > 10
-        ? chartData.sublist(chartData.length - 10)
-        : chartData;
-
-    return recentData;
-  }
-
-  List<Map<String, dynamic>> _generateSampleChartData() {
-    final sampleData = <Map<String, dynamic>>[];
-    final now = DateTime.now();
-
-    for (int i = 6; i >= 0; i--) {
-      final date = now.subtract(Duration(days: i));
-      final baseAmount = 80.0 + (i * 15) + (DateTime.now().millisecond % 50);
-      final totalAmount = baseAmount / 0.8;
-      final mediumAmount = totalAmount * 0.8;
-      final oraculumAmount = totalAmount * 0.2;
-
-      sampleData.add({
-        'date': DateFormat('dd/MM').format(date),
-        'shortDate': DateFormat('dd').format(date),
-        'mediumAmount': mediumAmount,
-        'oraculumAmount': oraculumAmount,
-        'fullDate': date,
-      });
-    }
-
-    return sampleData;
-  }
-
-  Widget _buildBottomTitle(int value, EarningsController controller) {
-    final chartData = _generateChartData(controller);
-    if (value >= 0 && value < chartData.length) {
-      return Padding(
-        padding: const EdgeInsets.only(top: 8.0),
-        child: Text(
-          chartData[value]['shortDate'] ?? '',
-          style: const TextStyle(
-            color: Colors.white60,
-            fontSize: 10,
-          ),
-        ),
-      );
-    }
-    return const SizedBox.shrink();
-  }
-
-  Widget _buildLeftTitle(double value) {
-    return Text(
-      'R\$ ${value.toInt()}',
-      style: const TextStyle(
-        color: Colors.white60,
-        fontSize: 10,
-      ),
-    );
-  }
 }
@@ -176,6 +176,7 @@ class _ProfileEditScreenState extends State<ProfileEditScreen> {
           Obx(() {
             final profile = _controller.mediumProfile.value;
             final isUploading = _controller.isUploadingImage.value;
+            final localImage = _controller.selectedImage.value;
 
             return Stack(
               alignment: Alignment.center,
@@ -183,10 +184,12 @@ class _ProfileEditScreenState extends State<ProfileEditScreen> {
                 CircleAvatar(
                   radius: isLargeScreen ? 70 : 60,
                   backgroundColor: AppTheme.primaryColor.withOpacity(0.3),
-                  backgroundImage: profile?.imageUrl != null && profile!.imageUrl!.isNotEmpty
-                      ? NetworkImage(profile.imageUrl!)
+                  backgroundImage: localImage != null
+                      ? FileImage(localImage)
+                      : profile?.imageUrl != null && profile!.imageUrl!.isNotEmpty
+                      ? NetworkImage(profile.imageUrl!) as ImageProvider
                       : null,
-                  child: profile?.imageUrl == null || profile!.imageUrl!.isEmpty
+                  child: localImage == null && (profile?.imageUrl == null || profile!.imageUrl!.isEmpty)
                       ? Icon(
                     Icons.person,
                     size: isLargeScreen ? 60 : 50,
@@ -659,18 +662,18 @@ class _ProfileEditScreenState extends State<ProfileEditScreen> {
       return;
     }
 
-    final success = await _controller.updateProfile(
+    // Em caso de erro o controller já avisou e restaurou o perfil; a tela
+    // continua aberta para uma nova tentativa
+    final saved = await _controller.saveProfileChanges(
       name: name,
-      phone: phone.isEmpty ? null : phone,
+      phone: phone,
       bio: bio,
-      experience: experience.isEmpty ? null : experience,
+      experience: experience,
       specialties: _selectedSpecialties,
       pricePerMinute: price,
     );
 
-    if (success) {
-      Get.back();
-    }
+    if (saved && mounted) Get.back();
   }
 }
 
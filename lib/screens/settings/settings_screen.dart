@@ -557,7 +557,7 @@ class SettingsScreen extends StatelessWidget {
   }
 
   void _saveSettings(MediumAdminController controller) async {
-    final success = await controller.updateSettings(controller.settings);
+    final success = await controller.savePendingSettings();
 
     if (success) {
       Get.snackbar(
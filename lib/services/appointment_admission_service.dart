@@ -0,0 +1,451 @@
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/models/appointment_model.dart';
+import 'package:oraculum_medium/services/firebase_service.dart';
+import 'package:oraculum_medium/utils/day_occupancy.dart';
+
+enum AdmissionDecision { accepted, alreadyAccepted, rejected, pendingReview, failed }
+
+/// Resultado de [AppointmentAdmissionService.transition]: `skipped` quando o
+/// status atual não permitia a mudança
+enum StatusTransition { applied, skipped, failed }
+
+class AdmissionResult {
+  final AdmissionDecision decision;
+  final String? reason;
+
+  const AdmissionResult(this.decision, [this.reason]);
+
+  bool get isAccepted =>
+      decision == AdmissionDecision.accepted || decision == AdmissionDecision.alreadyAccepted;
+
+  @override
+  String toString() => 'AdmissionResult(${decision.name}${reason != null ? ', $reason' : ''})';
+}
+
+/// Leituras e escritas de uma tentativa de transação de admissão; todas as
+/// leituras devem vir antes das escritas, como no Firestore
+abstract class AdmissionTransaction {
+  /// Dados do documento, ou `null` se ele não existir
+  Future<Map<String, dynamic>?> get(String collection, String id);
+
+  void set(String collection, String id, Map<String, dynamic> data);
+
+  void update(String collection, String id, Map<String, dynamic> data);
+}
+
+/// Documentos usados pela admissão, separados do Firestore para que a
+/// transação possa ser exercitada em memória
+abstract class AdmissionStore {
+  /// Executa [body] como transação, repetindo-a quando uma escrita
+  /// concorrente altera algum documento lido
+  Future<T> runTransaction<T>(Future<T> Function(AdmissionTransaction transaction) body);
+
+  /// Lê um documento fora de transação; `null` se ele não existir
+  Future<Map<String, dynamic>?> read(String collection, String id);
+
+  /// Consultas confirmadas de [mediumId] com horário no dia de [date]
+  Future<List<AppointmentModel>> confirmedAppointmentsOn(String mediumId, DateTime date);
+}
+
+/// [AdmissionStore] sobre o Firestore do app
+class FirestoreAdmissionStore implements AdmissionStore {
+  const FirestoreAdmissionStore();
+
+  FirebaseService get _firebaseService => Get.find<FirebaseService>();
+
+  @override
+  Future<T> runTransaction<T>(Future<T> Function(AdmissionTransaction transaction) body) {
+    return _firebaseService.runTransaction<T>(
+        (transaction) => body(_FirestoreAdmissionTransaction(_firebaseService.firestore, transaction)));
+  }
+
+  @override
+  Future<Map<String, dynamic>?> read(String collection, String id) async {
+    final doc = await _firebaseService.firestore.collection(collection).doc(id).get();
+    return doc.data();
+  }
+
+  @override
+  Future<List<AppointmentModel>> confirmedAppointmentsOn(String mediumId, DateTime date) async {
+    final startOfDay = DateTime(date.year, date.month, date.day);
+    final nextDay = DateTime(date.year, date.month, date.day + 1);
+
+    final snapshot = await _firebaseService.appointmentsCollection
+        .where('mediumId', isEqualTo: mediumId)
+        .where('status', isEqualTo: 'confirmed')
+        .where('scheduledDate', isGreaterThanOrEqualTo: Timestamp.fromDate(startOfDay))
+        .where('scheduledDate', isLessThan: Timestamp.fromDate(nextDay))
+        .get();
+
+    return snapshot.docs
+        .map((doc) => AppointmentModel.fromMap(doc.data() as Map<String, dynamic>, doc.id))
+        .toList();
+  }
+}
+
+class _FirestoreAdmissionTransaction implements AdmissionTransaction {
+  final FirebaseFirestore _firestore;
+  final Transaction _transaction;
+
+  _FirestoreAdmissionTransaction(this._firestore, this._transaction);
+
+  @override
+  Future<Map<String, dynamic>?> get(String collection, String id) async {
+    final doc = await _transaction.get(_firestore.collection(collection).doc(id));
+    return doc.data();
+  }
+
+  @override
+  void set(String collection, String id, Map<String, dynamic> data) {
+    _transaction.set(_firestore.collection(collection).doc(id), data);
+  }
+
+  @override
+  void update(String collection, String id, Map<String, dynamic> data) {
+    _transaction.update(_firestore.collection(collection).doc(id), data);
+  }
+}
+
+/// Controle de admissão das consultas
+///
+/// Aceitar uma consulta lê, em uma única transação, a consulta, as
+/// configurações do médium e o documento de ocupação do dia em
+/// `medium_day_occupancy`, que guarda o bitmap dos horários reservados e a
+/// contagem de consultas. Assim `maxDailyAppointments`, `bufferTime`,
+/// `minAdvanceBooking`, `maxAdvanceBooking` e `allowSameDayBooking` são
+/// verificados sem consultar as demais consultas do dia, e duas reservas
+/// concorrentes para o mesmo dia disputam o mesmo documento: o Firestore
+/// repete a transação que perder e ela enxerga a reserva vencedora.
+///
+/// Dias sem documento de ocupação (com consultas confirmadas antes de ele
+/// existir) são semeados uma vez a partir das consultas confirmadas do dia.
+class AppointmentAdmissionService extends GetxService {
+  final AdmissionStore _store;
+
+  static const String occupancyCollection = 'medium_day_occupancy';
+  static const String appointmentsCollection = 'appointments';
+  static const String settingsCollection = 'medium_settings';
+
+  /// Tentativas de montar a semente de um dia sem documento; a data da
+  /// consulta pode mudar entre a consulta das confirmadas e a transação
+  static const int _maxSeedAttempts = 3;
+
+  /// Status que liberam o horário reservado
+  static const Set<String> releasingStatuses = {'canceled', 'cancelled', 'expired', 'rejected'};
+
+  /// Status a partir dos quais a consulta ainda pode ser cancelada ou recusada
+  static const Set<String> openStatuses = {'pending', 'confirmed'};
+
+  int acceptedCount = 0;
+  int rejectedCount = 0;
+  int releasedCount = 0;
+  int transactionAttempts = 0;
+  int transactionCalls = 0;
+  int seededDays = 0;
+
+  AppointmentAdmissionService({AdmissionStore? store})
+      : _store = store ?? const FirestoreAdmissionStore();
+
+  /// Tenta reservar o horário da consulta e confirmá-la
+  ///
+  /// Com [automatic], só age se `autoAcceptAppointments` estiver ativo,
+  /// aplica também as regras de antecedência e grava a recusa na consulta.
+  /// Sem [automatic] (aceite manual pelo médium), uma recusa não altera nada.
+  Future<AdmissionResult> admit(String appointmentId, {bool automatic = false}) async {
+    try {
+      debugPrint('=== AppointmentAdmissionService.admit() ===');
+      debugPrint('Appointment ID: $appointmentId, automatic: $automatic');
+
+      final result = await _admitSeedingDay(appointmentId, automatic);
+
+      if (result.decision == AdmissionDecision.accepted) acceptedCount++;
+      if (result.decision == AdmissionDecision.rejected) rejectedCount++;
+
+      debugPrint('✅ Admissão: $result');
+      return result;
+    } catch (e) {
+      debugPrint('❌ Erro na admissão da consulta: $e');
+      return const AdmissionResult(AdmissionDecision.failed, 'Erro ao reservar o horário');
+    }
+  }
+
+  /// Transação de admissão; quando o dia ainda não tem documento de
+  /// ocupação, ela para sem escrever, a semente é montada fora dela (transações
+  /// não fazem consultas) e a admissão é repetida com a semente
+  Future<AdmissionResult> _admitSeedingDay(String appointmentId, bool automatic) async {
+    ({String dayId, Map<String, dynamic> data})? seed;
+
+    for (var attempt = 0;; attempt++) {
+      if (attempt == _maxSeedAttempts) {
+        throw StateError('Ocupação do dia não pôde ser semeada');
+      }
+
+      (String, DateTime)? missingDay;
+      final daySeed = seed;
+
+      transactionCalls++;
+      final result = await _store.runTransaction<AdmissionResult?>((transaction) async {
+        transactionAttempts++;
+        missingDay = null;
+
+        final data = await transaction.get(appointmentsCollection, appointmentId);
+        if (data == null) {
+          return const AdmissionResult(AdmissionDecision.rejected, 'Consulta não encontrada');
+        }
+
+        final appointment = AppointmentModel.fromMap(data, appointmentId);
+        if (!appointment.isPending && !appointment.isConfirmed) {
+          return AdmissionResult(AdmissionDecision.rejected, 'Consulta ${appointment.statusText.toLowerCase()}');
+        }
+
+        final settings = await transaction.get(settingsCollection, appointment.mediumId) ?? {};
+
+        final dayId = DayOccupancy.documentId(appointment.mediumId, appointment.scheduledDate);
+        final dayData = await transaction.get(occupancyCollection, dayId);
+
+        final seeded = dayData == null;
+        if (seeded && daySeed?.dayId != dayId) {
+          missingDay = (appointment.mediumId, appointment.scheduledDate);
+          return null;
+        }
+
+        // A semente é copiada a cada tentativa, já que a transação pode
+        // ser repetida
+        final occupancy = DayOccupancy.fromMap(seeded ? daySeed!.data : dayData);
+
+        // Todas as leituras acima; daqui em diante só escritas
+        var occupancyChanged = seeded;
+        final AdmissionResult decision;
+
+        if (occupancy.contains(appointmentId)) {
+          if (appointment.isPending) {
+            transaction.update(appointmentsCollection, appointmentId, _confirmedData(dayId));
+          }
+          decision = const AdmissionResult(AdmissionDecision.alreadyAccepted);
+        } else if (automatic && settings['autoAcceptAppointments'] != true) {
+          decision = const AdmissionResult(AdmissionDecision.pendingReview);
+        } else {
+          final (start, end) = DayOccupancy.slotRange(appointment.scheduledDate, appointment.duration);
+          final reason = _violation(appointment, settings, occupancy, start, end, automatic);
+
+          if (reason != null) {
+            if (automatic && appointment.isPending) {
+              transaction.update(appointmentsCollection, appointmentId, {
+                'status': 'rejected',
+                'rejectReason': reason,
+                'updatedAt': FieldValue.serverTimestamp(),
+              });
+            }
+            decision = AdmissionResult(AdmissionDecision.rejected, reason);
+          } else {
+            occupancy.occupy(appointmentId, start, end);
+            occupancyChanged = true;
+            transaction.update(appointmentsCollection, appointmentId, _confirmedData(dayId));
+            decision = const AdmissionResult(AdmissionDecision.accepted);
+          }
+        }
+
+        if (occupancyChanged) {
+          transaction.set(occupancyCollection, dayId,
+              _dayData(appointment.mediumId, appointment.scheduledDate, occupancy));
+        }
+        return decision;
+      });
+
+      if (result != null) return result;
+
+      final (mediumId, date) = missingDay!;
+      seed = await _seedDay(mediumId, date);
+    }
+  }
+
+  /// Muda o status de uma consulta pendente ou confirmada para [newStatus]
+  /// e, na mesma transação, libera o horário que ela ocupava; retorna false
+  /// se a consulta já estava em outro status ou se a transação falhou
+  Future<bool> release(String appointmentId, String newStatus, {String? reason}) async {
+    final outcome = await transition(appointmentId, newStatus, from: openStatuses, reason: reason);
+    return outcome == StatusTransition.applied;
+  }
+
+  /// Muda o status da consulta para [newStatus] só se o status atual, lido
+  /// na transação, estiver em [from]; para status de [releasingStatuses],
+  /// libera também o horário que ela ocupava
+  Future<StatusTransition> transition(
+    String appointmentId,
+    String newStatus, {
+    required Set<String> from,
+    String? reason,
+  }) async {
+    try {
+      debugPrint('=== AppointmentAdmissionService.transition() ===');
+      debugPrint('Appointment ID: $appointmentId, status: $from -> $newStatus');
+
+      transactionCalls++;
+      final (outcome, released) =
+          await _store.runTransaction<(StatusTransition, bool)>((transaction) async {
+        transactionAttempts++;
+
+        final data = await transaction.get(appointmentsCollection, appointmentId);
+        if (data == null || !from.contains(data['status'])) {
+          return (StatusTransition.skipped, false);
+        }
+
+        // Consultas confirmadas antes dos documentos de ocupação não têm
+        // `occupancyId`, mas podem ter entrado na semente do dia
+        var occupancyId = data['occupancyId'] as String?;
+        if (occupancyId == null && data['mediumId'] != null) {
+          final appointment = AppointmentModel.fromMap(data, appointmentId);
+          occupancyId = DayOccupancy.documentId(appointment.mediumId, appointment.scheduledDate);
+        }
+
+        DayOccupancy? occupancy;
+
+        if (occupancyId != null && releasingStatuses.contains(newStatus)) {
+          occupancy = DayOccupancy.fromMap(await transaction.get(occupancyCollection, occupancyId));
+        }
+
+        final updateData = <String, dynamic>{
+          'status': newStatus,
+          'updatedAt': FieldValue.serverTimestamp(),
+        };
+        if (newStatus == 'canceled' || newStatus == 'cancelled') {
+          updateData['canceledAt'] = FieldValue.serverTimestamp();
+          if (reason != null) updateData['cancelReason'] = reason;
+        }
+        transaction.update(appointmentsCollection, appointmentId, updateData);
+
+        if (occupancyId != null && occupancy != null && occupancy.release(appointmentId)) {
+          transaction.update(occupancyCollection, occupancyId, {
+            ...occupancy.toMap(),
+            'updatedAt': FieldValue.serverTimestamp(),
+          });
+          return (StatusTransition.applied, true);
+        }
+        return (StatusTransition.applied, false);
+      });
+
+      if (released) releasedCount++;
+
+      if (outcome == StatusTransition.skipped) {
+        debugPrint('⚠️ Consulta fora de $from, status mantido');
+      } else {
+        debugPrint('✅ Consulta atualizada${released ? ' e horário liberado' : ''}');
+      }
+      return outcome;
+    } catch (e) {
+      debugPrint('❌ Erro ao mudar o status da consulta: $e');
+      return StatusTransition.failed;
+    }
+  }
+
+  /// Ocupação de um dia, usada para montar os horários livres; um dia sem
+  /// documento é semeado a partir das consultas confirmadas
+  Future<DayOccupancy> getDayOccupancy(String mediumId, DateTime date) async {
+    final dayId = DayOccupancy.documentId(mediumId, date);
+    final data = await _store.read(occupancyCollection, dayId);
+    if (data != null) return DayOccupancy.fromMap(data);
+
+    final seed = await _seedDay(mediumId, date);
+
+    transactionCalls++;
+    return _store.runTransaction((transaction) async {
+      transactionAttempts++;
+
+      // Uma admissão pode ter criado o documento depois da consulta
+      final current = await transaction.get(occupancyCollection, dayId);
+      if (current != null) return DayOccupancy.fromMap(current);
+
+      final occupancy = DayOccupancy.fromMap(seed.data);
+      transaction.set(occupancyCollection, dayId, _dayData(mediumId, date, occupancy));
+      return occupancy;
+    });
+  }
+
+  /// Monta a ocupação de um dia a partir das consultas confirmadas dele
+  Future<({String dayId, Map<String, dynamic> data})> _seedDay(String mediumId, DateTime date) async {
+    final dayId = DayOccupancy.documentId(mediumId, date);
+
+    debugPrint('=== AppointmentAdmissionService._seedDay() ===');
+    debugPrint('Dia: $dayId');
+
+    final occupancy = DayOccupancy.empty();
+    for (final appointment in await _store.confirmedAppointmentsOn(mediumId, date)) {
+      final (start, end) = DayOccupancy.slotRange(appointment.scheduledDate, appointment.duration);
+      occupancy.occupy(appointment.id, start, end);
+    }
+
+    seededDays++;
+    debugPrint('✅ Semente com ${occupancy.count} consulta(s) confirmada(s)');
+    return (dayId: dayId, data: occupancy.toMap());
+  }
+
+  Map<String, dynamic> _dayData(String mediumId, DateTime date, DayOccupancy occupancy) => {
+    ...occupancy.toMap(),
+    'mediumId': mediumId,
+    'date': Timestamp.fromDate(DateTime(date.year, date.month, date.day)),
+    'updatedAt': FieldValue.serverTimestamp(),
+  };
+
+  String? _violation(
+      AppointmentModel appointment,
+      Map<String, dynamic> settings,
+      DayOccupancy occupancy,
+      int start,
+      int end,
+      bool automatic,
+      ) {
+    final maxDaily = (settings['maxDailyAppointments'] as num?)?.toInt() ?? 10;
+    if (occupancy.count >= maxDaily) {
+      return 'Limite diário de $maxDaily consultas atingido';
+    }
+
+    final buffer = DayOccupancy.slotsFor((settings['bufferTime'] as num?)?.toInt() ?? 15);
+    if (!occupancy.isFree(start - buffer, end + buffer)) {
+      return 'Horário indisponível: conflita com outra consulta ou com o intervalo entre consultas';
+    }
+
+    // As regras de antecedência valem para a reserva feita pelo cliente; o
+    // médium pode aceitar manualmente fora delas
+    if (!automatic) return null;
+
+    final bookedAt = appointment.createdAt;
+    final scheduled = appointment.scheduledDate;
+
+    final minAdvanceHours = (settings['minAdvanceBooking'] as num?)?.toInt() ?? 2;
+    if (scheduled.difference(bookedAt) < Duration(hours: minAdvanceHours)) {
+      return 'Reserva com menos de $minAdvanceHours hora(s) de antecedência';
+    }
+
+    final maxAdvanceDays = (settings['maxAdvanceBooking'] as num?)?.toInt() ?? 30;
+    if (scheduled.difference(bookedAt) > Duration(days: maxAdvanceDays)) {
+      return 'Reserva com mais de $maxAdvanceDays dia(s) de antecedência';
+    }
+
+    final sameDay = scheduled.year == bookedAt.year &&
+        scheduled.month == bookedAt.month &&
+        scheduled.day == bookedAt.day;
+    if (sameDay && settings['allowSameDayBooking'] == false) {
+      return 'Reservas para o mesmo dia não são aceitas';
+    }
+
+    return null;
+  }
+
+  Map<String, dynamic> _confirmedData(String occupancyId) => {
+    'status': 'confirmed',
+    'occupancyId': occupancyId,
+    'admittedAt': FieldValue.serverTimestamp(),
+    'updatedAt': FieldValue.serverTimestamp(),
+  };
+
+  Map<String, int> get metrics => {
+    'accepted': acceptedCount,
+    'rejected': rejectedCount,
+    'released': releasedCount,
+    'transactionCalls': transactionCalls,
+    'transactionRetries': transactionAttempts - transactionCalls,
+    'seededDays': seededDays,
+  };
+}
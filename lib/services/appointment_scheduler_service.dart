@@ -0,0 +1,420 @@
+import 'dart:async';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:intl/intl.dart';
+import 'package:oraculum_medium/models/appointment_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
+import 'package:oraculum_medium/services/firebase_service.dart';
+import 'package:oraculum_medium/utils/scheduler_clock.dart';
+import 'package:oraculum_medium/utils/timer_wheel.dart';
+
+enum AppointmentTimerKind { reminder, expire, noShow }
+
+/// Efeitos dos temporizadores do [AppointmentSchedulerService], separados
+/// do agendamento para que ele possa ser conduzido por um relógio simulado
+abstract class AppointmentTimerActions {
+  /// Reivindica `reminderSentAt` na consulta e só então notifica o médium;
+  /// true também quando outro dispositivo já enviou o lembrete
+  Future<bool> sendReminder(String mediumId, AppointmentModel appointment);
+
+  /// Muda o status para [status] apenas se o status atual estiver em [from]
+  Future<StatusTransition> transition(String appointmentId, Set<String> from, String status);
+
+  Future<AdmissionResult> admit(String appointmentId);
+}
+
+/// Ações gravadas no Firestore pelos serviços do app
+class FirestoreAppointmentTimerActions implements AppointmentTimerActions {
+  const FirestoreAppointmentTimerActions();
+
+  @override
+  Future<bool> sendReminder(String mediumId, AppointmentModel appointment) async {
+    final firebaseService = Get.find<FirebaseService>();
+    final appointmentRef = firebaseService.appointmentsCollection.doc(appointment.id);
+
+    // A reivindicação vem antes do envio para que dois dispositivos do
+    // mesmo médium não notifiquem a mesma consulta
+    final claimed = await firebaseService.runTransaction<bool>((transaction) async {
+      final doc = await transaction.get(appointmentRef);
+      final data = doc.data() as Map<String, dynamic>?;
+
+      if (data == null || data['reminderSentAt'] != null) return false;
+      if (!AppointmentAdmissionService.openStatuses.contains(data['status'])) return false;
+
+      transaction.update(appointmentRef, {'reminderSentAt': FieldValue.serverTimestamp()});
+      return true;
+    });
+    if (!claimed) return true;
+
+    try {
+      final time = DateFormat('HH:mm').format(appointment.scheduledDate);
+      await firebaseService.createNotification({
+        'userId': mediumId,
+        'mediumId': mediumId,
+        'appointmentId': appointment.id,
+        'type': 'reminder',
+        'title': 'Lembrete de consulta',
+        'message': 'Você tem uma consulta às $time com ${appointment.clientName}',
+      });
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao criar notificação de lembrete: $e');
+      // Devolve a reivindicação para que a nova tentativa possa enviar
+      await appointmentRef.update({'reminderSentAt': FieldValue.delete()});
+      return false;
+    }
+  }
+
+  @override
+  Future<StatusTransition> transition(String appointmentId, Set<String> from, String status) {
+    return Get.find<AppointmentAdmissionService>().transition(appointmentId, status, from: from);
+  }
+
+  @override
+  Future<AdmissionResult> admit(String appointmentId) {
+    return Get.find<AppointmentAdmissionService>().admit(appointmentId, automatic: true);
+  }
+}
+
+/// Agenda lembretes e transições automáticas de status das consultas
+/// em aberto do médium logado
+///
+/// As consultas chegam pelo stream de consultas pendentes/confirmadas e cada
+/// alteração reagenda apenas a consulta afetada em uma [TimerWheel]. Um
+/// temporizador periódico do [SchedulerClock] avança a roda:
+/// - lembrete: [reminderLead] antes do horário, se `appointmentReminders`
+///   estiver ativo e o lembrete ainda não tiver sido enviado;
+/// - expiração: consulta ainda pendente [pendingExpiryGrace] após o horário;
+/// - não comparecimento: consulta confirmada e não concluída [noShowGrace]
+///   após o horário de término.
+///
+/// Com `autoAcceptAppointments` ativo, cada nova consulta pendente passa
+/// pelo [AppointmentAdmissionService], que a confirma ou recusa.
+///
+/// Os streams só alimentam [updateAppointment], [removeAppointment] e
+/// [applySettings]; os efeitos passam por [AppointmentTimerActions].
+class AppointmentSchedulerService extends GetxService {
+  final SchedulerClock clock;
+  final AppointmentTimerActions actions;
+
+  static const Duration tickInterval = Duration(seconds: 15);
+  static const Duration reminderLead = Duration(minutes: 15);
+  static const Duration pendingExpiryGrace = Duration(minutes: 15);
+  static const Duration noShowGrace = Duration(hours: 2);
+  static const Duration retryDelay = Duration(minutes: 1);
+
+  static const String expiredStatus = 'expired';
+  static const String noShowStatus = 'no_show';
+
+  late final TimerWheel<(String, AppointmentTimerKind), String> _wheel;
+
+  final Map<String, AppointmentModel> _appointments = {};
+  final Set<String> _remindedAppointments = {};
+  final Set<String> _inFlight = {};
+  final Set<String> _admissionAttempted = {};
+
+  StreamSubscription<QuerySnapshot>? _appointmentsSubscription;
+  StreamSubscription<DocumentSnapshot>? _settingsSubscription;
+  Timer? _ticker;
+  String? _mediumId;
+  bool _remindersEnabled = true;
+  bool _autoAccept = false;
+
+  int remindersSent = 0;
+  int expiredAppointments = 0;
+  int noShowAppointments = 0;
+  int rescheduledAppointments = 0;
+  int failedActions = 0;
+
+  AppointmentSchedulerService({SchedulerClock? clock, AppointmentTimerActions? actions})
+      : clock = clock ?? const SystemSchedulerClock(),
+        actions = actions ?? const FirestoreAppointmentTimerActions() {
+    _wheel = TimerWheel(startMs: this.clock.now().millisecondsSinceEpoch);
+  }
+
+  bool get isRunning => _mediumId != null;
+
+  int get pendingTimers => _wheel.length;
+
+  @override
+  void onClose() {
+    stop();
+    super.onClose();
+  }
+
+  /// Começa a acompanhar as consultas de [mediumId]
+  void start(String mediumId) {
+    if (_mediumId == mediumId) return;
+
+    debugPrint('=== AppointmentSchedulerService.start() ===');
+    debugPrint('Medium ID: $mediumId');
+
+    attach(mediumId);
+
+    final firebaseService = Get.find<FirebaseService>();
+    _settingsSubscription = firebaseService.mediumSettingsCollection
+        .doc(mediumId)
+        .snapshots()
+        .listen(_onSettingsSnapshot, onError: (e) {
+      debugPrint('❌ Erro ao observar configurações de lembrete: $e');
+    });
+    _appointmentsSubscription = firebaseService
+        .getMediumActiveAppointmentsStream(mediumId)
+        .listen(_onAppointmentsSnapshot, onError: (e) {
+      debugPrint('❌ Erro ao observar consultas: $e');
+    });
+  }
+
+  /// Passa a agendar para [mediumId] e liga o temporizador do [clock], sem
+  /// observar o Firestore; as consultas chegam por [updateAppointment]
+  @visibleForTesting
+  void attach(String mediumId) {
+    stop();
+    _mediumId = mediumId;
+    tick();
+    _ticker = clock.periodic(tickInterval, tick);
+  }
+
+  /// Para de acompanhar e descarta todos os temporizadores
+  void stop() {
+    _ticker?.cancel();
+    _ticker = null;
+    _appointmentsSubscription?.cancel();
+    _appointmentsSubscription = null;
+    _settingsSubscription?.cancel();
+    _settingsSubscription = null;
+
+    _wheel.clear();
+    _appointments.clear();
+    _remindedAppointments.clear();
+    _admissionAttempted.clear();
+    _autoAccept = false;
+    _mediumId = null;
+  }
+
+  /// Avança a roda até o horário atual do [clock]
+  void tick() {
+    _wheel.advanceTo(clock.now().millisecondsSinceEpoch, (key, appointmentId) {
+      _fire(appointmentId, key.$2);
+    });
+  }
+
+  void _onSettingsSnapshot(DocumentSnapshot doc) {
+    applySettings(doc.data() as Map<String, dynamic>? ?? {});
+  }
+
+  /// Aplica as configurações do médium (lembretes e aceite automático)
+  void applySettings(Map<String, dynamic> data) {
+    final notifications = data['notifications'] as Map<String, dynamic>? ?? {};
+    final notificationSettings = data['notificationSettings'] as Map<String, dynamic>? ?? {};
+
+    // As telas de configurações gravam em `notifications` e o painel do
+    // médium em `notificationSettings`; qualquer um desativado desliga
+    final enabled = notifications['appointmentReminders'] != false &&
+        notificationSettings['appointmentReminders'] != false;
+
+    final autoAccept = data['autoAcceptAppointments'] == true;
+    if (autoAccept != _autoAccept) {
+      _autoAccept = autoAccept;
+      if (autoAccept) {
+        for (final appointment in _appointments.values) {
+          _autoAdmit(appointment);
+        }
+      }
+    }
+
+    if (enabled == _remindersEnabled) return;
+    _remindersEnabled = enabled;
+    debugPrint('🔔 Lembretes de consulta ${enabled ? 'ativados' : 'desativados'}');
+
+    for (final appointment in _appointments.values) {
+      _scheduleReminder(appointment);
+    }
+  }
+
+  void _onAppointmentsSnapshot(QuerySnapshot snapshot) {
+    for (final change in snapshot.docChanges) {
+      final id = change.doc.id;
+
+      if (change.type == DocumentChangeType.removed) {
+        removeAppointment(id);
+        continue;
+      }
+
+      final data = change.doc.data() as Map<String, dynamic>?;
+      if (data == null) continue;
+
+      updateAppointment(
+        AppointmentModel.fromMap(data, id),
+        reminderSent: data['reminderSentAt'] != null,
+      );
+    }
+  }
+
+  /// Agenda (ou reagenda) os temporizadores de uma consulta em aberto
+  void updateAppointment(AppointmentModel appointment, {bool reminderSent = false}) {
+    if (reminderSent) _remindedAppointments.add(appointment.id);
+    if (_appointments.containsKey(appointment.id)) rescheduledAppointments++;
+
+    _schedule(appointment);
+    _autoAdmit(appointment);
+  }
+
+  /// Descarta uma consulta que deixou de estar em aberto
+  void removeAppointment(String appointmentId) {
+    _unschedule(appointmentId);
+    _appointments.remove(appointmentId);
+  }
+
+  /// Envia uma consulta pendente para admissão automática uma única vez;
+  /// a transação confere de novo a configuração antes de decidir
+  void _autoAdmit(AppointmentModel appointment) {
+    if (!_autoAccept || !appointment.isPending) return;
+    if (!_admissionAttempted.add(appointment.id)) return;
+
+    actions.admit(appointment.id).then((result) {
+      if (result.decision == AdmissionDecision.pendingReview ||
+          result.decision == AdmissionDecision.failed) {
+        _admissionAttempted.remove(appointment.id);
+      }
+    });
+  }
+
+  void _schedule(AppointmentModel appointment) {
+    _appointments[appointment.id] = appointment;
+
+    final id = appointment.id;
+    final start = appointment.scheduledDate;
+
+    if (appointment.isPending) {
+      _wheel.schedule((id, AppointmentTimerKind.expire),
+          start.add(pendingExpiryGrace).millisecondsSinceEpoch, id);
+    } else {
+      _wheel.cancel((id, AppointmentTimerKind.expire));
+    }
+
+    if (appointment.isConfirmed) {
+      final end = start.add(Duration(minutes: appointment.duration));
+      _wheel.schedule((id, AppointmentTimerKind.noShow),
+          end.add(noShowGrace).millisecondsSinceEpoch, id);
+    } else {
+      _wheel.cancel((id, AppointmentTimerKind.noShow));
+    }
+
+    _scheduleReminder(appointment);
+  }
+
+  void _scheduleReminder(AppointmentModel appointment) {
+    final key = (appointment.id, AppointmentTimerKind.reminder);
+
+    final wanted = _remindersEnabled &&
+        (appointment.isPending || appointment.isConfirmed) &&
+        !_remindedAppointments.contains(appointment.id) &&
+        appointment.scheduledDate.isAfter(clock.now());
+
+    if (!wanted) {
+      _wheel.cancel(key);
+      return;
+    }
+
+    _wheel.schedule(key,
+        appointment.scheduledDate.subtract(reminderLead).millisecondsSinceEpoch, appointment.id);
+  }
+
+  void _unschedule(String appointmentId) {
+    for (final kind in AppointmentTimerKind.values) {
+      _wheel.cancel((appointmentId, kind));
+    }
+  }
+
+  void _fire(String appointmentId, AppointmentTimerKind kind) {
+    final appointment = _appointments[appointmentId];
+    if (appointment == null) return;
+
+    final actionKey = '$appointmentId:${kind.name}';
+    if (!_inFlight.add(actionKey)) return;
+
+    final Future<bool> action;
+    switch (kind) {
+      case AppointmentTimerKind.reminder:
+        action = _sendReminder(appointment);
+        break;
+      case AppointmentTimerKind.expire:
+        action = _transition(appointment, const {'pending'}, expiredStatus);
+        break;
+      case AppointmentTimerKind.noShow:
+        action = _transition(appointment, const {'confirmed'}, noShowStatus);
+        break;
+    }
+
+    action.then((success) {
+      if (success) return;
+      failedActions++;
+
+      // Tenta de novo enquanto a consulta continuar em aberto
+      if (_appointments.containsKey(appointmentId)) {
+        _wheel.schedule((appointmentId, kind),
+            clock.now().add(retryDelay).millisecondsSinceEpoch, appointmentId);
+      }
+    }).whenComplete(() => _inFlight.remove(actionKey));
+  }
+
+  Future<bool> _sendReminder(AppointmentModel appointment) async {
+    final mediumId = _mediumId;
+    if (mediumId == null || !_remindersEnabled) return true;
+
+    // O horário pode ter passado enquanto o app estava em segundo plano
+    if (!appointment.scheduledDate.isAfter(clock.now())) return true;
+
+    try {
+      debugPrint('=== AppointmentSchedulerService._sendReminder() ===');
+      debugPrint('Appointment ID: ${appointment.id}');
+
+      _remindedAppointments.add(appointment.id);
+
+      if (!await actions.sendReminder(mediumId, appointment)) {
+        _remindedAppointments.remove(appointment.id);
+        return false;
+      }
+
+      remindersSent++;
+      debugPrint('✅ Lembrete enviado');
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao enviar lembrete: $e');
+      _remindedAppointments.remove(appointment.id);
+      return false;
+    }
+  }
+
+  /// A transação confere o status atual: se a consulta já foi confirmada,
+  /// cancelada ou concluída desde o último snapshot, nada é alterado
+  Future<bool> _transition(AppointmentModel appointment, Set<String> from, String status) async {
+    debugPrint('⏰ Consulta ${appointment.id}: ${appointment.status} → $status');
+
+    switch (await actions.transition(appointment.id, from, status)) {
+      case StatusTransition.applied:
+        if (status == expiredStatus) expiredAppointments++;
+        if (status == noShowStatus) noShowAppointments++;
+        return true;
+      case StatusTransition.skipped:
+        debugPrint('⚠️ Consulta ${appointment.id} não está mais em $from');
+        return true;
+      case StatusTransition.failed:
+        return false;
+    }
+  }
+
+  Map<String, int> get metrics => {
+    'trackedAppointments': _appointments.length,
+    'pendingTimers': _wheel.length,
+    'remindersSent': remindersSent,
+    'expiredAppointments': expiredAppointments,
+    'noShowAppointments': noShowAppointments,
+    'rescheduledAppointments': rescheduledAppointments,
+    'cascadedTimers': _wheel.cascadedEntries,
+    'failedActions': failedActions,
+  };
+}
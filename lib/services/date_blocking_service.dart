@@ -2,6 +2,7 @@
 import 'package:cloud_firestore/cloud_firestore.dart';
 import 'package:flutter/material.dart';
 import 'package:get/get.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
 
 class DateBlockingService extends GetxService {
@@ -386,26 +387,14 @@ class DateBlockingService extends GetxService {
     return days[weekday - 1];
   }
 
+  /// Lê os horários reservados do documento de ocupação do dia, em vez de
+  /// consultar todas as consultas da data; um dia sem documento é semeado
+  /// pelo [AppointmentAdmissionService] com as consultas confirmadas
   Future<List<Map<String, dynamic>>> _getExistingAppointmentsForDate(
       String mediumId, DateTime date) async {
     try {
-      final startOfDay = DateTime(date.year, date.month, date.day);
-      final endOfDay = DateTime(date.year, date.month, date.day, 23, 59, 59);
-
-      final snapshot = await _firebaseService.appointmentsCollection
-          .where('mediumId', isEqualTo: mediumId)
-          .where('dateTime', isGreaterThanOrEqualTo: Timestamp.fromDate(startOfDay))
-          .where('dateTime', isLessThanOrEqualTo: Timestamp.fromDate(endOfDay))
-          .where('status', whereIn: ['pending', 'confirmed'])
-          .get();
-
-      return snapshot.docs.map((doc) {
-        final data = doc.data() as Map<String, dynamic>;
-        return {
-          'dateTime': (data['dateTime'] as Timestamp).toDate(),
-          'duration': data['duration'] ?? 30,
-        };
-      }).toList();
+      final occupancy = await Get.find<AppointmentAdmissionService>().getDayOccupancy(mediumId, date);
+      return occupancy.toAppointments(date);
     } catch (e) {
       debugPrint('❌ Erro ao buscar agendamentos existentes: $e');
       return [];
@@ -1,8 +1,11 @@
+import 'dart:async';
 import 'dart:io';
 import 'package:cloud_firestore/cloud_firestore.dart';
 import 'package:firebase_auth/firebase_auth.dart';
 import 'package:firebase_storage/firebase_storage.dart';
 import 'package:flutter/material.dart';
+import 'package:oraculum_medium/services/presence_service.dart';
+import 'package:oraculum_medium/utils/analytics_buckets.dart';
 
 class FirebaseService {
   final FirebaseAuth _auth = FirebaseAuth.instance;
@@ -28,6 +31,8 @@ class FirebaseService {
   CollectionReference get notificationsCollection => _firestore.collection('notifications');
   CollectionReference get chatRoomsCollection => _firestore.collection('chat_rooms');
   CollectionReference get messagesCollection => _firestore.collection('messages');
+  CollectionReference get mediumPresenceCollection =>
+      _firestore.collection(PresenceService.mediumPresenceCollection);
 
   // ========== MÉTODOS DE USUÁRIO ==========
 
@@ -71,12 +76,42 @@ class FirebaseService {
         .get();
   }
 
-  Future<QuerySnapshot> getAvailableMediums() {
-    return mediumsCollection
+  /// Médiuns disponíveis; o `isAvailable` de `mediums` pode ficar preso em
+  /// `true` quando o app fecha sem avisar, então o resultado passa pelos
+  /// documentos de presença e só fica quem tem heartbeat dentro do TTL
+  Future<List<QueryDocumentSnapshot>> getAvailableMediums() async {
+    final snapshot = await mediumsCollection
         .where('isActive', isEqualTo: true)
         .where('isAvailable', isEqualTo: true)
         .orderBy('rating', descending: true)
         .get();
+
+    return filterByPresence(snapshot.docs);
+  }
+
+  /// Mantém, na ordem original, apenas os médiuns cuja presença está
+  /// online e com heartbeat recente
+  Future<List<QueryDocumentSnapshot>> filterByPresence(List<QueryDocumentSnapshot> docs) async {
+    if (docs.isEmpty) return docs;
+
+    // whereIn aceita no máximo 30 valores por consulta
+    const chunkSize = 30;
+    final ids = docs.map((doc) => doc.id).toList();
+    final snapshots = await Future.wait([
+      for (var start = 0; start < ids.length; start += chunkSize)
+        mediumPresenceCollection
+            .where(FieldPath.documentId,
+                whereIn: ids.sublist(start, start + chunkSize < ids.length ? start + chunkSize : ids.length))
+            .get(),
+    ]);
+
+    final online = <String>{
+      for (final snapshot in snapshots)
+        for (final doc in snapshot.docs)
+          if (PresenceService.effectiveStatus(doc.data() as Map<String, dynamic>?) != 'offline') doc.id,
+    };
+
+    return docs.where((doc) => online.contains(doc.id)).toList();
   }
 
   Future<QuerySnapshot> getMediumsBySpecialty(String specialty) {
@@ -128,15 +163,18 @@ class FirebaseService {
   Future<DocumentReference> createAppointment(Map<String, dynamic> appointmentData) {
     appointmentData['createdAt'] = FieldValue.serverTimestamp();
     appointmentData['updatedAt'] = FieldValue.serverTimestamp();
+    invalidateAnalytics(appointmentData['mediumId'] as String?);
     return appointmentsCollection.add(appointmentData);
   }
 
   Future<void> updateAppointment(String appointmentId, Map<String, dynamic> data) {
     data['updatedAt'] = FieldValue.serverTimestamp();
+    invalidateAnalytics();
     return appointmentsCollection.doc(appointmentId).update(data);
   }
 
   Future<void> updateAppointmentStatus(String appointmentId, String status) {
+    invalidateAnalytics();
     return appointmentsCollection.doc(appointmentId).update({
       'status': status,
       'updatedAt': FieldValue.serverTimestamp(),
@@ -144,6 +182,7 @@ class FirebaseService {
   }
 
   Future<void> cancelAppointment(String appointmentId, String reason) {
+    invalidateAnalytics();
     return appointmentsCollection.doc(appointmentId).update({
       'status': 'canceled',
       'cancelReason': reason,
@@ -163,6 +202,7 @@ class FirebaseService {
       data.addAll(completionData);
     }
 
+    invalidateAnalytics();
     return appointmentsCollection.doc(appointmentId).update(data);
   }
 
@@ -253,6 +293,7 @@ class FirebaseService {
 
   Future<DocumentReference> createEarningRecord(Map<String, dynamic> earningData) {
     earningData['createdAt'] = FieldValue.serverTimestamp();
+    invalidateAnalytics(earningData['mediumId'] as String?);
     return mediumEarningsCollection.add(earningData);
   }
 
@@ -290,6 +331,7 @@ class FirebaseService {
 
   Future<void> updateEarningRecord(String earningId, Map<String, dynamic> data) {
     data['updatedAt'] = FieldValue.serverTimestamp();
+    invalidateAnalytics();
     return mediumEarningsCollection.doc(earningId).update(data);
   }
 
@@ -523,71 +565,174 @@ class FirebaseService {
 
   // ========== MÉTODOS DE ANALYTICS ==========
 
-  Future<Map<String, dynamic>> getMediumAnalytics(String mediumId) async {
-    try {
-      final now = DateTime.now();
-      final startOfMonth = DateTime(now.year, now.month, 1);
-      final startOfYear = DateTime(now.year, 1, 1);
-
-      final monthlyAppointments = await getMediumAppointmentsInPeriod(
-        mediumId,
-        startOfMonth,
-        now,
-      );
-
-      final yearlyAppointments = await getMediumAppointmentsInPeriod(
-        mediumId,
-        startOfYear,
-        now,
-      );
-
-      final monthlyEarnings = await getMediumEarningsInPeriod(
-        mediumId,
-        startOfMonth,
-        now,
-      );
-
-      final reviews = await getMediumReviews(mediumId);
-
-      double totalMonthlyEarnings = 0;
-      for (final doc in monthlyEarnings.docs) {
-        final data = doc.data() as Map<String, dynamic>;
-        totalMonthlyEarnings += (data['amount'] ?? 0.0).toDouble();
-      }
+  /// Tempo em que um resultado de analytics é reaproveitado
+  static const Duration analyticsTtl = Duration(seconds: 60);
 
-      double averageRating = 0;
-      if (reviews.docs.isNotEmpty) {
-        double totalRating = 0;
-        for (final doc in reviews.docs) {
-          final data = doc.data() as Map<String, dynamic>;
-          totalRating += (data['rating'] ?? 0.0).toDouble();
-        }
-        averageRating = totalRating / reviews.docs.length;
-      }
+  /// Campo de data das consultas, o mesmo lido por `AppointmentModel`
+  static const String _appointmentDateField = 'scheduledDate';
 
-      return {
-        'monthlyAppointments': monthlyAppointments.docs.length,
-        'yearlyAppointments': yearlyAppointments.docs.length,
-        'monthlyEarnings': totalMonthlyEarnings,
-        'totalReviews': reviews.docs.length,
-        'averageRating': averageRating,
-        'updatedAt': DateTime.now(),
-      };
+  final Map<String, ({DateTime fetchedAt, Future<dynamic> result})> _analyticsCache = {};
+
+  /// Resumo de consultas, ganhos e avaliações do médium
+  ///
+  /// Usa consultas de agregação (`count`, `sum`, `average`), enviadas em
+  /// paralelo, em vez de baixar os documentos; o resultado é memorizado por
+  /// [analyticsTtl] e chamadas simultâneas compartilham a mesma busca.
+  Future<Map<String, dynamic>> getMediumAnalytics(String mediumId) async {
+    try {
+      return await _cachedAnalytics('summary:$mediumId', () async {
+        final now = DateTime.now();
+        final startOfMonth = DateTime(now.year, now.month, 1);
+        final startOfYear = DateTime(now.year, 1, 1);
+
+        final results = await Future.wait([
+          _appointmentsInRange(mediumId, startOfMonth, now).count().get(),
+          _appointmentsInRange(mediumId, startOfYear, now).count().get(),
+          _earningsInRange(mediumId, startOfMonth, now).aggregate(sum('amount')).get(),
+          mediumReviewsCollection
+              .where('mediumId', isEqualTo: mediumId)
+              .aggregate(count(), average('rating'))
+              .get(),
+        ]);
+
+        final monthlyAppointments = results[0];
+        final yearlyAppointments = results[1];
+        final monthlyEarnings = results[2];
+        final reviews = results[3];
+
+        return {
+          'monthlyAppointments': monthlyAppointments.count ?? 0,
+          'yearlyAppointments': yearlyAppointments.count ?? 0,
+          'monthlyEarnings': monthlyEarnings.getSum('amount') ?? 0.0,
+          'totalReviews': reviews.count ?? 0,
+          'averageRating': reviews.getAverage('rating') ?? 0.0,
+          'updatedAt': DateTime.now(),
+        };
+      });
     } catch (e) {
       debugPrint('Erro ao buscar analytics: $e');
       return {};
     }
   }
 
+  /// Analytics de um período qualquer, agrupado por semana (começando na
+  /// segunda-feira) ou por mês
+  ///
+  /// Cada grupo custa três consultas de agregação, todas enviadas em
+  /// paralelo; grupos nas pontas são recortados por [start] e [end].
+  /// Durante [analyticsTtl], períodos que cobrem os mesmos grupos
+  /// compartilham o resultado.
+  Future<List<Map<String, dynamic>>> getMediumAnalyticsRange(
+      String mediumId, {
+        required DateTime start,
+        required DateTime end,
+        AnalyticsGrouping groupBy = AnalyticsGrouping.week,
+      }) async {
+    try {
+      // A chave usa as fronteiras dos grupos, e não o instante exato, para
+      // que chamadas com `end = DateTime.now()` reaproveitem o resultado
+      final keyStart = analyticsBucketStart(start, groupBy);
+      final keyEnd = analyticsBucketCeil(end, groupBy);
+      final key = 'range:$mediumId:${keyStart.millisecondsSinceEpoch}:'
+          '${keyEnd.millisecondsSinceEpoch}:${groupBy.name}';
+
+      return await _cachedAnalytics(key, () async {
+        final buckets = analyticsBuckets(start, end, groupBy);
+
+        final results = await Future.wait([
+          for (final (bucketStart, bucketEnd) in buckets) ...[
+            _appointmentsInRange(mediumId, bucketStart, bucketEnd, inclusiveEnd: false)
+                .count()
+                .get(),
+            _earningsInRange(mediumId, bucketStart, bucketEnd, inclusiveEnd: false)
+                .aggregate(count(), sum('amount'))
+                .get(),
+            mediumReviewsCollection
+                .where('mediumId', isEqualTo: mediumId)
+                .where('createdAt', isGreaterThanOrEqualTo: Timestamp.fromDate(bucketStart))
+                .where('createdAt', isLessThan: Timestamp.fromDate(bucketEnd))
+                .aggregate(count(), average('rating'))
+                .get(),
+          ],
+        ]);
+
+        return [
+          for (var i = 0; i < buckets.length; i++)
+            {
+              'start': buckets[i].$1,
+              'end': buckets[i].$2,
+              'appointments': results[i * 3].count ?? 0,
+              'earningsCount': results[i * 3 + 1].count ?? 0,
+              'earnings': results[i * 3 + 1].getSum('amount') ?? 0.0,
+              'reviews': results[i * 3 + 2].count ?? 0,
+              'averageRating': results[i * 3 + 2].getAverage('rating') ?? 0.0,
+            },
+        ];
+      });
+    } catch (e) {
+      debugPrint('Erro ao buscar analytics do período: $e');
+      return [];
+    }
+  }
+
+  /// Descarta os analytics memorizados do médium, ou de todos os médiuns
+  /// quando a escrita não informa qual foi afetado
+  void invalidateAnalytics([String? mediumId]) {
+    if (mediumId == null) {
+      _analyticsCache.clear();
+      return;
+    }
+    _analyticsCache.removeWhere((key, _) =>
+        key == 'summary:$mediumId' || key.startsWith('range:$mediumId:'));
+  }
+
+  Future<T> _cachedAnalytics<T>(String key, Future<T> Function() fetch) {
+    final now = DateTime.now();
+    _analyticsCache.removeWhere((_, entry) => now.difference(entry.fetchedAt) >= analyticsTtl);
+
+    final cached = _analyticsCache[key];
+    if (cached != null) return cached.result as Future<T>;
+
+    final result = fetch();
+    _analyticsCache[key] = (fetchedAt: now, result: result);
+
+    // Falhas não ficam memorizadas
+    unawaited(result.then<void>((_) {}, onError: (Object _) {
+      if (identical(_analyticsCache[key]?.result, result)) _analyticsCache.remove(key);
+    }));
+
+    return result;
+  }
+
+  Query _appointmentsInRange(String mediumId, DateTime start, DateTime end, {bool inclusiveEnd = true}) {
+    final query = appointmentsCollection
+        .where('mediumId', isEqualTo: mediumId)
+        .where(_appointmentDateField, isGreaterThanOrEqualTo: Timestamp.fromDate(start));
+
+    return inclusiveEnd
+        ? query.where(_appointmentDateField, isLessThanOrEqualTo: Timestamp.fromDate(end))
+        : query.where(_appointmentDateField, isLessThan: Timestamp.fromDate(end));
+  }
+
+  Query _earningsInRange(String mediumId, DateTime start, DateTime end, {bool inclusiveEnd = true}) {
+    final query = mediumEarningsCollection
+        .where('mediumId', isEqualTo: mediumId)
+        .where('date', isGreaterThanOrEqualTo: Timestamp.fromDate(start));
+
+    return inclusiveEnd
+        ? query.where('date', isLessThanOrEqualTo: Timestamp.fromDate(end))
+        : query.where('date', isLessThan: Timestamp.fromDate(end));
+  }
+
   // ========== MÉTODOS DE BUSCA AVANÇADA ==========
 
-  Future<QuerySnapshot> advancedMediumSearch({
+  Future<List<QueryDocumentSnapshot>> advancedMediumSearch({
     String? name,
     List<String>? specialties,
     double? minRating,
     double? maxPrice,
     bool? isAvailable,
-  }) {
+  }) async {
     Query query = mediumsCollection.where('isActive', isEqualTo: true);
 
     if (name != null && name.isNotEmpty) {
@@ -608,7 +753,8 @@ class FirebaseService {
       query = query.where('isAvailable', isEqualTo: true);
     }
 
-    return query.orderBy('rating', descending: true).limit(20).get();
+    final snapshot = await query.orderBy('rating', descending: true).limit(20).get();
+    return isAvailable == true ? filterByPresence(snapshot.docs) : snapshot.docs;
   }
 
   // ========== MÉTODOS DE TRANSAÇÃO ==========
@@ -636,6 +782,15 @@ class FirebaseService {
         .snapshots();
   }
 
+  /// Consultas ainda em aberto (pendentes ou confirmadas); uma consulta que
+  /// muda para outro status chega como remoção
+  Stream<QuerySnapshot> getMediumActiveAppointmentsStream(String mediumId) {
+    return appointmentsCollection
+        .where('mediumId', isEqualTo: mediumId)
+        .where('status', whereIn: ['pending', 'confirmed'])
+        .snapshots();
+  }
+
   Stream<QuerySnapshot> getUserNotificationsStream(String userId) {
     return notificationsCollection
         .where('userId', isEqualTo: userId)
@@ -4,11 +4,14 @@ import 'package:get/get.dart';
 import 'package:oraculum_medium/models/medium_model.dart';
 import 'package:oraculum_medium/models/appointment_model.dart';
 import 'package:oraculum_medium/models/medium_stats_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
 import 'package:oraculum_medium/services/firebase_service.dart';
+import 'package:oraculum_medium/services/presence_service.dart';
 
 class MediumService extends GetxService {
   final FirebaseFirestore _firestore = FirebaseFirestore.instance;
   final FirebaseService _firebaseService = Get.find<FirebaseService>();
+  final AppointmentAdmissionService _admissionService = Get.find<AppointmentAdmissionService>();
 
   static const String mediumsCollection = 'mediums';
   static const String appointmentsCollection = 'appointments';
@@ -104,6 +107,19 @@ class MediumService extends GetxService {
       debugPrint('Appointment ID: $appointmentId');
       debugPrint('New Status: $newStatus');
 
+      // Confirmar reserva o horário e cancelar o libera, ambos na mesma
+      // transação da mudança de status
+      if (newStatus == 'confirmed') {
+        final result = await _admissionService.admit(appointmentId);
+        if (result.isAccepted) _firebaseService.invalidateAnalytics();
+        return result.isAccepted;
+      }
+      if (AppointmentAdmissionService.releasingStatuses.contains(newStatus)) {
+        final released = await _admissionService.release(appointmentId, newStatus);
+        if (released) _firebaseService.invalidateAnalytics();
+        return released;
+      }
+
       final updateData = {
         'status': newStatus,
         'updatedAt': FieldValue.serverTimestamp(),
@@ -111,11 +127,10 @@ class MediumService extends GetxService {
 
       if (newStatus == 'completed') {
         updateData['completedAt'] = FieldValue.serverTimestamp();
-      } else if (newStatus == 'cancelled' || newStatus == 'canceled') {
-        updateData['canceledAt'] = FieldValue.serverTimestamp();
       }
 
       await _firestore.collection(appointmentsCollection).doc(appointmentId).update(updateData);
+      _firebaseService.invalidateAnalytics();
 
       debugPrint('✅ Status da consulta atualizado');
       return true;
@@ -131,15 +146,17 @@ class MediumService extends GetxService {
       debugPrint('Appointment ID: $appointmentId');
       debugPrint('Cancel Reason: $cancelReason');
 
-      await _firestore.collection(appointmentsCollection).doc(appointmentId).update({
-        'status': 'cancelled',
-        'cancelReason': cancelReason,
-        'canceledAt': FieldValue.serverTimestamp(),
-        'updatedAt': FieldValue.serverTimestamp(),
-      });
+      final success = await _admissionService.release(
+        appointmentId,
+        'cancelled',
+        reason: cancelReason,
+      );
 
-      debugPrint('✅ Consulta cancelada com sucesso');
-      return true;
+      if (success) {
+        _firebaseService.invalidateAnalytics();
+        debugPrint('✅ Consulta cancelada com sucesso');
+      }
+      return success;
     } catch (e) {
       debugPrint('❌ Erro ao cancelar consulta: $e');
       return false;
@@ -166,6 +183,7 @@ class MediumService extends GetxService {
       }
 
       await _firestore.collection(appointmentsCollection).doc(appointmentId).update(updateData);
+      _firebaseService.invalidateAnalytics();
 
       debugPrint('✅ Consulta finalizada com sucesso');
       return true;
@@ -181,15 +199,14 @@ class MediumService extends GetxService {
       debugPrint('Medium ID: $mediumId');
       debugPrint('Is Online: $isOnline');
 
-      await _firestore.collection(mediumsCollection).doc(mediumId).update({
-        'status': isOnline ? 'online' : 'offline',
-        'isAvailable': isOnline,
-        'lastSeen': FieldValue.serverTimestamp(),
-        'updatedAt': FieldValue.serverTimestamp(),
-      });
+      final success = await Get.find<PresenceService>().setStatus(
+        mediumId,
+        isOnline ? 'online' : 'offline',
+        isAvailable: isOnline,
+      );
 
-      debugPrint('✅ Status do médium atualizado');
-      return true;
+      if (success) debugPrint('✅ Status do médium atualizado');
+      return success;
     } catch (e) {
       debugPrint('❌ Erro ao atualizar status do médium: $e');
       return false;
@@ -501,21 +518,7 @@ class MediumService extends GetxService {
       debugPrint('=== getEarningsHistory() ===');
       debugPrint('Medium ID: $mediumId');
 
-      Query query = _firestore
-          .collection(mediumEarningsCollection)
-          .where('mediumId', isEqualTo: mediumId);
-
-      if (startDate != null) {
-        query = query.where('date', isGreaterThanOrEqualTo: startDate);
-      }
-
-      if (endDate != null) {
-        query = query.where('date', isLessThanOrEqualTo: endDate);
-      }
-
-      query = query.orderBy('date', descending: true);
-
-      final snapshot = await query.get();
+      final snapshot = await _earningsHistoryQuery(mediumId, startDate, endDate).get();
       final earnings = snapshot.docs
           .map((doc) => {
         'id': doc.id,
@@ -531,6 +534,33 @@ class MediumService extends GetxService {
     }
   }
 
+  /// Histórico de ganhos em tempo real, mais recentes primeiro; cada
+  /// snapshot traz em `docChanges` só os registros que mudaram
+  Stream<QuerySnapshot> getEarningsHistoryStream(
+      String mediumId, {
+        DateTime? startDate,
+        DateTime? endDate,
+      }) {
+    return _earningsHistoryQuery(mediumId, startDate, endDate).snapshots();
+  }
+
+  Query _earningsHistoryQuery(String mediumId, DateTime? startDate, DateTime? endDate) {
+    Query query = _firestore
+        .collection(mediumEarningsCollection)
+        .where('mediumId', isEqualTo: mediumId);
+
+    if (startDate != null) {
+      query = query.where('date', isGreaterThanOrEqualTo: startDate);
+    }
+
+    if (endDate != null) {
+      query = query.where('date', isLessThanOrEqualTo: endDate);
+    }
+
+    return query.orderBy('date', descending: true);
+  }
+
+
   Future<double> getMediumWalletBalance(String mediumId) async {
     try {
       debugPrint('=== getMediumWalletBalance() ===');
@@ -682,6 +712,7 @@ class MediumService extends GetxService {
           'createdAt': FieldValue.serverTimestamp(),
         });
       });
+      _firebaseService.invalidateAnalytics(mediumId);
 
       await updateMediumWallet(
           mediumId,
@@ -0,0 +1,290 @@
+import 'dart:async';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/services/firebase_service.dart';
+
+/// Presença dos médiuns baseada em heartbeats.
+///
+/// O status e os heartbeats vão para um documento leve em `medium_presence`,
+/// fora do documento principal em `mediums` que é observado pelo catálogo.
+/// Um médium cujo último heartbeat é mais antigo que [presenceTtl] é tratado
+/// como offline, mesmo que tenha fechado o app sem avisar. Só as mudanças que
+/// afetam o catálogo (`status`, `statusMessage`, `isAvailable`) são projetadas
+/// em `mediums`, agrupadas por [projectionDelay] e ignoradas quando iguais à
+/// última projeção.
+///
+/// As leituras do catálogo filtram pelos documentos de presença
+/// (`FirebaseService.filterByPresence`), então quem parou de enviar
+/// heartbeats some do catálogo sem que um cliente escreva nos documentos de
+/// outro médium; limpar `mediums` desses médiuns fica para um job agendado
+/// no servidor. Se o documento de presença deste médium tiver sido marcado
+/// offline por fora, o próximo heartbeat restaura `status`/`isOnline` e
+/// projeta de novo o status no catálogo.
+class PresenceService extends GetxService with WidgetsBindingObserver {
+  final FirebaseService _firebaseService = Get.find<FirebaseService>();
+
+  static const String mediumPresenceCollection = 'medium_presence';
+
+  static const Duration heartbeatInterval = Duration(minutes: 2);
+  static const Duration presenceTtl = Duration(minutes: 6);
+  static const Duration projectionDelay = Duration(seconds: 5);
+
+  final RxString currentStatus = 'offline'.obs;
+
+  String? _mediumId;
+  Timer? _heartbeatTimer;
+  Timer? _projectionTimer;
+  DateTime? _lastPresenceWrite;
+
+  final Map<String, dynamic> _pendingProjection = {};
+  final Map<String, dynamic> _lastProjection = {};
+
+  int presenceWrites = 0;
+  int heartbeatWrites = 0;
+  int skippedHeartbeats = 0;
+  int catalogWrites = 0;
+  int coalescedProjections = 0;
+  int restoredPresences = 0;
+
+  CollectionReference get presenceCollection =>
+      _firebaseService.firestore.collection(mediumPresenceCollection);
+
+  bool get isActive => _mediumId != null && currentStatus.value != 'offline';
+
+  @override
+  void onInit() {
+    super.onInit();
+    WidgetsBinding.instance.addObserver(this);
+  }
+
+  @override
+  void onClose() {
+    WidgetsBinding.instance.removeObserver(this);
+    _heartbeatTimer?.cancel();
+    _projectionTimer?.cancel();
+    super.onClose();
+  }
+
+  @override
+  void didChangeAppLifecycleState(AppLifecycleState state) {
+    switch (state) {
+      case AppLifecycleState.resumed:
+        if (isActive) _resume();
+        break;
+      case AppLifecycleState.paused:
+      case AppLifecycleState.hidden:
+        // Sem heartbeats em segundo plano; o TTL se encarrega de expirar
+        _stopTimers();
+        _flushProjection();
+        break;
+      case AppLifecycleState.detached:
+        _stopTimers();
+        _flushProjection();
+        break;
+      case AppLifecycleState.inactive:
+        break;
+    }
+  }
+
+  /// Atualiza o status do médium; [isAvailable] só é projetado quando informado
+  Future<bool> setStatus(
+      String mediumId,
+      String status, {
+        String? message,
+        bool? isAvailable,
+      }) async {
+    try {
+      debugPrint('=== PresenceService.setStatus() ===');
+      debugPrint('Medium ID: $mediumId, Status: $status');
+
+      if (_mediumId != null && _mediumId != mediumId) {
+        await _flushProjection();
+        _lastProjection.clear();
+      }
+      _mediumId = mediumId;
+
+      final isOnline = status != 'offline';
+      final presenceData = <String, dynamic>{
+        'mediumId': mediumId,
+        'status': status,
+        'isOnline': isOnline,
+        'lastHeartbeat': FieldValue.serverTimestamp(),
+        'updatedAt': FieldValue.serverTimestamp(),
+      };
+      if (message != null) presenceData['statusMessage'] = message;
+      if (isAvailable != null) presenceData['isAvailable'] = isAvailable;
+
+      await presenceCollection.doc(mediumId).set(presenceData, SetOptions(merge: true));
+      presenceWrites++;
+      _lastPresenceWrite = DateTime.now();
+      currentStatus.value = status;
+
+      _pendingProjection['status'] = status;
+      if (message != null) _pendingProjection['statusMessage'] = message;
+      if (isAvailable != null) _pendingProjection['isAvailable'] = isAvailable;
+
+      if (isOnline) {
+        _startHeartbeat();
+        _scheduleProjection();
+      } else {
+        _stopTimers();
+        await _flushProjection();
+      }
+
+      debugPrint('✅ Presença atualizada');
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao atualizar presença: $e');
+      return false;
+    }
+  }
+
+  Future<bool> goOffline(String mediumId) {
+    return setStatus(mediumId, 'offline', isAvailable: false);
+  }
+
+  /// Volta do segundo plano: o documento de `mediums` pode ter sido
+  /// marcado offline enquanto não havia heartbeats, então a última projeção
+  /// deixa de valer e o heartbeat é enviado antes de retomar o timer
+  Future<void> _resume() async {
+    _requeueProjection();
+    await _sendHeartbeat(force: true);
+    if (isActive) _startHeartbeat();
+  }
+
+  void _startHeartbeat() {
+    _heartbeatTimer?.cancel();
+    _heartbeatTimer = Timer.periodic(heartbeatInterval, (_) => _sendHeartbeat());
+  }
+
+  void _stopTimers() {
+    _heartbeatTimer?.cancel();
+  }
+
+  Future<void> _sendHeartbeat({bool force = false}) async {
+    final mediumId = _mediumId;
+    if (mediumId == null || !isActive) return;
+
+    // Uma escrita de status recente já vale como heartbeat
+    final last = _lastPresenceWrite;
+    if (!force && last != null && DateTime.now().difference(last) < heartbeatInterval * 0.9) {
+      skippedHeartbeats++;
+      return;
+    }
+
+    try {
+      final ref = presenceCollection.doc(mediumId);
+      final stored = (await ref.get()).data() as Map<String, dynamic>?;
+      final status = currentStatus.value;
+      final outdated = isPresenceOutdated(stored, status);
+
+      await ref.set({
+        'lastHeartbeat': FieldValue.serverTimestamp(),
+        if (outdated) ...{
+          'mediumId': mediumId,
+          'status': status,
+          'isOnline': true,
+          'updatedAt': FieldValue.serverTimestamp(),
+        },
+      }, SetOptions(merge: true));
+      heartbeatWrites++;
+      _lastPresenceWrite = DateTime.now();
+
+      if (outdated) {
+        debugPrint('⚠️ Presença marcada offline por fora; restaurando $status');
+        restoredPresences++;
+        _requeueProjection();
+      }
+    } catch (e) {
+      debugPrint('❌ Erro ao enviar heartbeat: $e');
+    }
+  }
+
+  /// Devolve a última projeção à fila, para que ela seja escrita de novo em
+  /// `mediums` mesmo que não tenha mudado deste lado
+  void _requeueProjection() {
+    for (final entry in _lastProjection.entries) {
+      _pendingProjection.putIfAbsent(entry.key, () => entry.value);
+    }
+    _lastProjection.clear();
+    _pendingProjection.putIfAbsent('status', () => currentStatus.value);
+    _scheduleProjection();
+  }
+
+  void _scheduleProjection() {
+    if (_projectionTimer?.isActive ?? false) {
+      coalescedProjections++;
+      return;
+    }
+    _projectionTimer = Timer(projectionDelay, _flushProjection);
+  }
+
+  Future<void> _flushProjection() async {
+    _projectionTimer?.cancel();
+
+    final mediumId = _mediumId;
+    if (mediumId == null || _pendingProjection.isEmpty) return;
+
+    final changes = <String, dynamic>{
+      for (final entry in _pendingProjection.entries)
+        if (_lastProjection[entry.key] != entry.value) entry.key: entry.value,
+    };
+    _pendingProjection.clear();
+
+    if (changes.isEmpty) {
+      coalescedProjections++;
+      return;
+    }
+
+    try {
+      await _firebaseService.updateMediumData(mediumId, Map<String, dynamic>.from(changes));
+      _lastProjection.addAll(changes);
+      catalogWrites++;
+      debugPrint('✅ Status projetado no catálogo: $changes');
+    } catch (e) {
+      debugPrint('❌ Erro ao projetar status no catálogo: $e');
+    }
+  }
+
+  /// Indica se o documento de presença guardado não reflete mais o [status]
+  /// local de um médium online (por exemplo, depois de expirado por fora)
+  static bool isPresenceOutdated(Map<String, dynamic>? stored, String status) {
+    if (stored == null) return true;
+    return stored['status'] != status || stored['isOnline'] != true;
+  }
+
+  /// Indica se o último heartbeat expirou; um heartbeat com exatamente
+  /// [presenceTtl] de idade ainda vale
+  static bool isStale(DateTime? lastHeartbeat, {DateTime? now}) {
+    if (lastHeartbeat == null) return true;
+    return (now ?? DateTime.now()).difference(lastHeartbeat) > presenceTtl;
+  }
+
+  /// Status efetivo de um documento de presença, considerando o TTL
+  static String effectiveStatus(Map<String, dynamic>? data, {DateTime? now}) {
+    if (data == null) return 'offline';
+
+    final status = data['status'] as String? ?? 'offline';
+    final heartbeat = data['lastHeartbeat'];
+    final lastHeartbeat = heartbeat is Timestamp ? heartbeat.toDate() : null;
+
+    if (status == 'offline' || isStale(lastHeartbeat, now: now)) return 'offline';
+    return status;
+  }
+
+  Stream<String> watchStatus(String mediumId) {
+    return presenceCollection.doc(mediumId).snapshots().map((doc) =>
+        effectiveStatus(doc.data() as Map<String, dynamic>?));
+  }
+
+  Map<String, int> get metrics => {
+    'presenceWrites': presenceWrites,
+    'heartbeatWrites': heartbeatWrites,
+    'skippedHeartbeats': skippedHeartbeats,
+    'catalogWrites': catalogWrites,
+    'coalescedProjections': coalescedProjections,
+    'restoredPresences': restoredPresences,
+  };
+}
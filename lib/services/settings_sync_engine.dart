@@ -0,0 +1,366 @@
+import 'dart:async';
+
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
+
+/// Destino das escritas do [SettingsSyncEngine], separado do Firestore
+/// para que o motor possa ser exercitado em memória
+abstract class SettingsWriter {
+  /// Grava [patch], com chaves em caminhos pontuados; lança em caso de falha
+  Future<void> write(Map<String, dynamic> patch);
+}
+
+/// [SettingsWriter] sobre um documento do Firestore; cria o documento se
+/// ele ainda não existir
+class FirestoreSettingsWriter implements SettingsWriter {
+  final DocumentReference Function() documentRef;
+
+  const FirestoreSettingsWriter(this.documentRef);
+
+  @override
+  Future<void> write(Map<String, dynamic> patch) async {
+    final data = {
+      ...patch,
+      'updatedAt': FieldValue.serverTimestamp(),
+    };
+
+    try {
+      await documentRef().update(data);
+    } on FirebaseException catch (e) {
+      if (e.code != 'not-found') rethrow;
+      await documentRef().set(SettingsSyncEngine.unflatten(data), SetOptions(merge: true));
+    }
+  }
+}
+
+/// Sincroniza um documento de configurações enviando apenas os campos
+/// alterados, como patches `update` com caminhos pontuados
+/// (ex.: `notifications.newAppointments`)
+///
+/// Alterações rápidas dentro da janela de [debounce] são agrupadas em uma
+/// única escrita; um campo que volta ao valor confirmado deixa de ser enviado.
+/// O estado local é otimista e, se a escrita falhar, as variáveis vinculadas
+/// via [bind] voltam ao último valor confirmado pelo servidor.
+///
+/// Campos com uma regra de validação (em [bind] ou [addValidator]) só são
+/// enviados quando a regra aceita o valor; um valor inválido fica retido
+/// como alterado, sem ser gravado, até ser corrigido ou voltar ao confirmado.
+class SettingsSyncEngine {
+  final String debugLabel;
+  final SettingsWriter writer;
+  final Duration debounce;
+  final Set<String> ignoredFields;
+
+  final Map<String, dynamic> _confirmed = {};
+  final Map<String, dynamic> _dirty = {};
+  final Map<String, void Function(dynamic value)> _bindings = {};
+  final Map<String, bool Function(dynamic value)> _validators = {};
+  final List<StreamSubscription> _subscriptions = [];
+
+  Timer? _debounceTimer;
+  Future<bool>? _inFlight;
+  bool _applyingRemote = false;
+
+  int writeCount = 0;
+  int fieldsWritten = 0;
+  int coalescedChanges = 0;
+  int skippedFlushes = 0;
+  int failedWrites = 0;
+  int heldChanges = 0;
+
+  /// Grava no documento de [documentRef], ou em [writer] quando informado
+  SettingsSyncEngine({
+    required this.debugLabel,
+    DocumentReference Function()? documentRef,
+    SettingsWriter? writer,
+    this.debounce = const Duration(milliseconds: 800),
+    this.ignoredFields = const {'createdAt', 'updatedAt'},
+  })  : assert(documentRef != null || writer != null),
+        writer = writer ?? FirestoreSettingsWriter(documentRef!);
+
+  bool get isDirty => _dirty.isNotEmpty;
+
+  Set<String> get dirtyFields => Set.unmodifiable(_dirty.keys);
+
+  /// Campos alterados cujo valor atual não passa na validação
+  Set<String> get heldFields => {
+    for (final entry in _dirty.entries)
+      if (!_isValid(entry.key, entry.value)) entry.key,
+  };
+
+  /// Registra os dados vindos do servidor como estado confirmado
+  void seed(Map<String, dynamic> data) {
+    _confirmed
+      ..clear()
+      ..addAll(flatten(data, ignoredFields: ignoredFields));
+    _dirty.clear();
+    _debounceTimer?.cancel();
+  }
+
+  /// Registra [data] como confirmado e executa [apply] sem marcar
+  /// as variáveis vinculadas como alteradas
+  ///
+  /// Alterações locais ainda não enviadas, inclusive as retidas por serem
+  /// inválidas, vencem o snapshot: voltam às variáveis depois de [apply] e
+  /// continuam pendentes se diferirem do novo valor confirmado.
+  void applyRemote(Map<String, dynamic> data, VoidCallback apply) {
+    final pending = Map.of(_dirty);
+    seed(data);
+
+    _runWithoutTracking(() {
+      apply();
+      for (final bound in _bindings.keys) {
+        if (pending.keys.any((path) => path == bound || path.startsWith('$bound.'))) {
+          _bindings[bound]!(_localValue(bound, pending));
+        }
+      }
+    });
+
+    pending.forEach(stage);
+  }
+
+  /// Vincula uma variável reativa a um caminho do documento; toda
+  /// alteração local é rastreada e enviada após o debounce, desde que
+  /// aceita por [validate]
+  void bind<T>(
+      String path,
+      RxObjectMixin<T> rx, {
+        T Function(dynamic value)? decode,
+        bool Function(T value)? validate,
+      }) {
+    _bindings[path] = (value) => rx.value = decode != null ? decode(value) : value as T;
+    if (validate != null) addValidator(path, (value) => value is T && validate(value));
+    _subscriptions.add(rx.listen((_) {
+      if (_applyingRemote) return;
+      stage(path, rx.value);
+    }));
+  }
+
+  /// Define a regra que um valor de [path] precisa cumprir para ser enviado
+  void addValidator(String path, bool Function(dynamic value) validate) {
+    _validators[path] = validate;
+  }
+
+  bool _isValid(String path, dynamic value) {
+    final validate = _validators[path];
+    return validate == null || validate(value);
+  }
+
+  /// Marca um campo como alterado; mapas são expandidos em caminhos pontuados
+  void stage(String path, dynamic value) {
+    if (ignoredFields.contains(path)) return;
+
+    if (value is Map) {
+      value.forEach((key, nested) => stage('$path.$key', nested));
+      return;
+    }
+
+    final snapshot = value is List ? List.of(value) : value;
+
+    if (RxBatch.isSame(_confirmed[path], snapshot)) {
+      if (_dirty.remove(path) != null) coalescedChanges++;
+    } else {
+      if (_dirty.containsKey(path)) coalescedChanges++;
+      _dirty[path] = snapshot;
+    }
+
+    _scheduleFlush();
+  }
+
+  /// Marca como alterados todos os campos de [data] que diferem do confirmado
+  void stageAll(Map<String, dynamic> data) {
+    data.forEach((key, value) => stage(key, value));
+  }
+
+  /// Envia imediatamente os campos pendentes; retorna `false` se a escrita
+  /// falhar ou se algum campo ficou retido por ser inválido
+  Future<bool> flush() async {
+    _debounceTimer?.cancel();
+
+    while (_inFlight != null) {
+      await _inFlight;
+    }
+
+    final patch = <String, dynamic>{
+      for (final entry in _dirty.entries)
+        if (_isValid(entry.key, entry.value)) entry.key: entry.value,
+    };
+    final held = _dirty.length - patch.length;
+
+    if (held > 0) {
+      heldChanges += held;
+      debugPrint('⚠️ $debugLabel: $held campo(s) inválido(s) retido(s): '
+          '${_dirty.keys.where((path) => !patch.containsKey(path)).join(', ')}');
+    }
+
+    if (patch.isEmpty) {
+      skippedFlushes++;
+      return held == 0;
+    }
+
+    patch.keys.forEach(_dirty.remove);
+
+    final write = _write(patch);
+    _inFlight = write;
+
+    try {
+      return await write && held == 0;
+    } finally {
+      _inFlight = null;
+      _scheduleFlush();
+    }
+  }
+
+  Future<bool> _write(Map<String, dynamic> patch) async {
+    try {
+      debugPrint('=== $debugLabel.sync() ===');
+      debugPrint('Campos: ${patch.keys.join(', ')}');
+
+      await writer.write(patch);
+
+      _confirmed.addAll(patch);
+      writeCount++;
+      fieldsWritten += patch.length;
+
+      debugPrint('✅ ${patch.length} campo(s) sincronizado(s)');
+      return true;
+    } catch (e) {
+      debugPrint('❌ Erro ao sincronizar configurações: $e');
+      failedWrites++;
+      _rollback(patch.keys);
+      return false;
+    }
+  }
+
+  void _rollback(Iterable<String> paths) {
+    final affected = <String>{};
+
+    for (final path in paths) {
+      if (_dirty.containsKey(path)) continue;
+
+      for (final bound in _bindings.keys) {
+        if (path == bound || path.startsWith('$bound.')) {
+          affected.add(bound);
+        }
+      }
+    }
+
+    _runWithoutTracking(() {
+      for (final bound in affected) {
+        final value = _confirmedValue(bound);
+        if (value != null) _bindings[bound]!(value);
+      }
+    });
+  }
+
+  dynamic _confirmedValue(String path) {
+    if (_confirmed.containsKey(path)) return _confirmed[path];
+
+    final prefix = '$path.';
+    final nested = <String, dynamic>{
+      for (final entry in _confirmed.entries)
+        if (entry.key.startsWith(prefix)) entry.key.substring(prefix.length): entry.value,
+    };
+
+    return nested.isEmpty ? null : unflatten(nested);
+  }
+
+  /// Valor confirmado de [path] com as alterações de [pending] por cima
+  dynamic _localValue(String path, Map<String, dynamic> pending) {
+    if (pending.containsKey(path)) return pending[path];
+
+    final prefix = '$path.';
+    return unflatten({
+      for (final entry in _confirmed.entries)
+        if (entry.key.startsWith(prefix)) entry.key.substring(prefix.length): entry.value,
+      for (final entry in pending.entries)
+        if (entry.key.startsWith(prefix)) entry.key.substring(prefix.length): entry.value,
+    });
+  }
+
+  void _runWithoutTracking(VoidCallback action) {
+    _applyingRemote = true;
+    try {
+      action();
+    } finally {
+      _applyingRemote = false;
+    }
+  }
+
+  void _scheduleFlush() {
+    _debounceTimer?.cancel();
+
+    // Campos retidos sozinhos não justificam uma escrita
+    if (!_dirty.entries.any((entry) => _isValid(entry.key, entry.value))) return;
+    _debounceTimer = Timer(debounce, flush);
+  }
+
+  Map<String, int> get metrics => {
+    'writes': writeCount,
+    'fieldsWritten': fieldsWritten,
+    'coalescedChanges': coalescedChanges,
+    'skippedFlushes': skippedFlushes,
+    'failedWrites': failedWrites,
+    'heldChanges': heldChanges,
+    'trackedFields': _confirmed.length,
+  };
+
+  void logMetrics() {
+    debugPrint('📊 $debugLabel sync: $metrics');
+  }
+
+  /// Para de rastrear as variáveis, envia o que ainda estiver pendente e
+  /// só então descarta os vínculos, que o rollback de uma falha ainda usa
+  Future<void> dispose() async {
+    for (final subscription in _subscriptions) {
+      subscription.cancel();
+    }
+    _subscriptions.clear();
+
+    await flush();
+
+    _debounceTimer?.cancel();
+    _bindings.clear();
+    _validators.clear();
+  }
+
+  /// Converte mapas aninhados em caminhos pontuados; listas são valores folha
+  static Map<String, dynamic> flatten(
+      Map<dynamic, dynamic> data, {
+        String prefix = '',
+        Set<String> ignoredFields = const {},
+      }) {
+    final result = <String, dynamic>{};
+
+    data.forEach((key, value) {
+      final path = '$prefix$key';
+      if (ignoredFields.contains(path)) return;
+
+      if (value is Map) {
+        result.addAll(flatten(value, prefix: '$path.', ignoredFields: ignoredFields));
+      } else {
+        result[path] = value;
+      }
+    });
+
+    return result;
+  }
+
+  /// Operação inversa de [flatten]
+  static Map<String, dynamic> unflatten(Map<String, dynamic> data) {
+    final result = <String, dynamic>{};
+
+    data.forEach((path, value) {
+      final segments = path.split('.');
+      var node = result;
+      for (final segment in segments.take(segments.length - 1)) {
+        node = node.putIfAbsent(segment, () => <String, dynamic>{}) as Map<String, dynamic>;
+      }
+      node[segments.last] = value;
+    });
+
+    return result;
+  }
+}
@@ -0,0 +1,45 @@
+enum AnalyticsGrouping { week, month }
+
+/// Início do grupo que contém [date]: a segunda-feira da semana ou o
+/// primeiro dia do mês, à meia-noite
+DateTime analyticsBucketStart(DateTime date, AnalyticsGrouping groupBy) {
+  return switch (groupBy) {
+    AnalyticsGrouping.week => DateTime(date.year, date.month, date.day - (date.weekday - 1)),
+    AnalyticsGrouping.month => DateTime(date.year, date.month, 1),
+  };
+}
+
+/// Início do grupo seguinte ao que começa em [bucketStart]
+DateTime analyticsNextBucket(DateTime bucketStart, AnalyticsGrouping groupBy) {
+  return switch (groupBy) {
+    AnalyticsGrouping.week => DateTime(bucketStart.year, bucketStart.month, bucketStart.day + 7),
+    AnalyticsGrouping.month => DateTime(bucketStart.year, bucketStart.month + 1, 1),
+  };
+}
+
+/// [date] arredondada para cima até a fronteira de grupo mais próxima
+DateTime analyticsBucketCeil(DateTime date, AnalyticsGrouping groupBy) {
+  final start = analyticsBucketStart(date, groupBy);
+  return start == date ? date : analyticsNextBucket(start, groupBy);
+}
+
+/// Grupos `[início, fim)` que cobrem o período de [start] a [end]; o
+/// primeiro e o último são recortados pelo período
+List<(DateTime, DateTime)> analyticsBuckets(DateTime start, DateTime end, AnalyticsGrouping groupBy) {
+  final buckets = <(DateTime, DateTime)>[];
+  if (!end.isAfter(start)) return buckets;
+
+  var bucketStart = analyticsBucketStart(start, groupBy);
+
+  while (bucketStart.isBefore(end)) {
+    final bucketEnd = analyticsNextBucket(bucketStart, groupBy);
+
+    buckets.add((
+      bucketStart.isBefore(start) ? start : bucketStart,
+      bucketEnd.isAfter(end) ? end : bucketEnd,
+    ));
+    bucketStart = bucketEnd;
+  }
+
+  return buckets;
+}
@@ -0,0 +1,137 @@
+import 'package:intl/intl.dart';
+
+/// Ocupação de um dia da agenda de um médium, em blocos de [slotMinutes]
+///
+/// Os blocos ocupados ficam em um bitmap de palavras de 48 bits (cabem em
+/// um inteiro do Firestore sem perda) e cada consulta admitida guarda
+/// o seu intervalo `[start, end)` em blocos, para que liberar uma consulta
+/// não dependa de consultar as outras. Consultas que passam da meia-noite
+/// são limitadas ao fim do dia.
+class DayOccupancy {
+  static const int slotMinutes = 5;
+  static const int slotsPerDay = 24 * 60 ~/ slotMinutes;
+
+  static const int _wordBits = 48;
+  static const int _wordCount = slotsPerDay ~/ _wordBits;
+  static const int _wordMask = (1 << _wordBits) - 1;
+
+  final List<int> _words;
+  final Map<String, (int, int)> _intervals;
+
+  DayOccupancy._(this._words, this._intervals);
+
+  DayOccupancy.empty() : this._(List<int>.filled(_wordCount, 0), {});
+
+  factory DayOccupancy.fromMap(Map<String, dynamic>? map) {
+    final occupancy = DayOccupancy.empty();
+    if (map == null) return occupancy;
+
+    final appointments = map['appointments'] as Map<String, dynamic>? ?? {};
+    appointments.forEach((id, value) {
+      final interval = value as Map<String, dynamic>;
+      occupancy._intervals[id] = (
+        (interval['start'] as num).toInt(),
+        (interval['end'] as num).toInt(),
+      );
+    });
+
+    // O bitmap é derivado dos intervalos, que são a fonte de verdade
+    occupancy._rebuild();
+    return occupancy;
+  }
+
+  Map<String, dynamic> toMap() {
+    return {
+      'slots': List<int>.of(_words),
+      'count': count,
+      'appointments': {
+        for (final entry in _intervals.entries)
+          entry.key: {'start': entry.value.$1, 'end': entry.value.$2},
+      },
+    };
+  }
+
+  int get count => _intervals.length;
+
+  bool contains(String appointmentId) => _intervals.containsKey(appointmentId);
+
+  /// Indica se nenhum bloco em `[start, end)` está ocupado
+  bool isFree(int start, int end) {
+    if (start < 0) start = 0;
+    if (end > slotsPerDay) end = slotsPerDay;
+
+    for (var slot = start; slot < end;) {
+      final word = slot ~/ _wordBits;
+      final bit = slot % _wordBits;
+      final span = (end - slot) < (_wordBits - bit) ? end - slot : _wordBits - bit;
+      final mask = ((1 << span) - 1) << bit;
+
+      if (_words[word] & mask != 0) return false;
+      slot += span;
+    }
+
+    return true;
+  }
+
+  /// Marca `[start, end)` como ocupado pela consulta [appointmentId]
+  void occupy(String appointmentId, int start, int end) {
+    _intervals[appointmentId] = (start, end);
+    _setRange(start, end);
+  }
+
+  /// Libera os blocos da consulta; retorna `false` se ela não estava no dia
+  bool release(String appointmentId) {
+    if (_intervals.remove(appointmentId) == null) return false;
+    _rebuild();
+    return true;
+  }
+
+  /// Consultas do dia no formato usado na geração de horários livres
+  List<Map<String, dynamic>> toAppointments(DateTime day) {
+    final start = DateTime(day.year, day.month, day.day);
+    return [
+      for (final interval in _intervals.values)
+        {
+          'dateTime': start.add(Duration(minutes: interval.$1 * slotMinutes)),
+          'duration': (interval.$2 - interval.$1) * slotMinutes,
+        },
+    ];
+  }
+
+  void _rebuild() {
+    _words.fillRange(0, _wordCount, 0);
+    for (final interval in _intervals.values) {
+      _setRange(interval.$1, interval.$2);
+    }
+  }
+
+  void _setRange(int start, int end) {
+    if (start < 0) start = 0;
+    if (end > slotsPerDay) end = slotsPerDay;
+
+    for (var slot = start; slot < end;) {
+      final word = slot ~/ _wordBits;
+      final bit = slot % _wordBits;
+      final span = (end - slot) < (_wordBits - bit) ? end - slot : _wordBits - bit;
+
+      _words[word] = (_words[word] | (((1 << span) - 1) << bit)) & _wordMask;
+      slot += span;
+    }
+  }
+
+  /// Blocos `[start, end)` ocupados por uma consulta iniciada em [start]
+  static (int, int) slotRange(DateTime start, int durationMinutes) {
+    final minuteOfDay = start.hour * 60 + start.minute;
+    final first = minuteOfDay ~/ slotMinutes;
+    final last = (minuteOfDay + durationMinutes + slotMinutes - 1) ~/ slotMinutes;
+    return (first, last > slotsPerDay ? slotsPerDay : last);
+  }
+
+  /// Quantidade de blocos necessária para cobrir [minutes]
+  static int slotsFor(int minutes) => (minutes + slotMinutes - 1) ~/ slotMinutes;
+
+  /// Id do documento de ocupação de um médium em um dia
+  static String documentId(String mediumId, DateTime date) {
+    return '${mediumId}_${DateFormat('yyyyMMdd').format(date)}';
+  }
+}
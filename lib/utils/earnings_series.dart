@@ -0,0 +1,277 @@
+/// Um ponto da série de ganhos (um dia)
+class EarningsPoint {
+  final DateTime date;
+  final double mediumAmount;
+  final double oraculumAmount;
+
+  const EarningsPoint(this.date, this.mediumAmount, this.oraculumAmount);
+}
+
+/// Série diária de ganhos para o gráfico, mantida incrementalmente
+///
+/// Cada registro de ganho entra pelo seu id em [upsert]/[remove] (ou em lote
+/// por [applyChanges], só com os registros alterados, ou por [sync], com a
+/// lista inteira) e só o dia afetado é recalculado; os dias ficam ordenados em
+/// listas paralelas, então localizar uma janela é uma busca binária. Para
+/// desenhar, [points] reduz a janela visível a um orçamento de pontos com
+/// LTTB (Largest-Triangle-Three-Buckets) sobre os ganhos do médium, o que
+/// preserva picos e vales; o último resultado fica em cache até a série ou
+/// a janela mudarem.
+class EarningsSeries {
+  static const int _msPerDay = Duration.millisecondsPerDay;
+
+  final List<int> _days = [];
+  final List<double> _medium = [];
+  final List<double> _oraculum = [];
+  final List<int> _recordCounts = [];
+
+  final Map<String, ({int day, double medium, double oraculum})> _records = {};
+
+  int _version = 0;
+
+  (int, int, int, int)? _cacheKey;
+  List<EarningsPoint> _cache = const [];
+
+  /// Incrementado a cada mudança efetiva na série
+  int get version => _version;
+
+  int get length => _days.length;
+
+  int get recordCount => _records.length;
+
+  bool get isEmpty => _days.isEmpty;
+
+  DateTime? get firstDate => _days.isEmpty ? null : dateOf(_days.first);
+
+  DateTime? get lastDate => _days.isEmpty ? null : dateOf(_days.last);
+
+  /// Número do dia de [date] (no calendário local), imune a horário de verão
+  static int dayNumber(DateTime date) {
+    return DateTime.utc(date.year, date.month, date.day).millisecondsSinceEpoch ~/ _msPerDay;
+  }
+
+  /// Data local (meia-noite) de um número de dia
+  static DateTime dateOf(int day) {
+    final utc = DateTime.fromMillisecondsSinceEpoch(day * _msPerDay, isUtc: true);
+    return DateTime(utc.year, utc.month, utc.day);
+  }
+
+  /// Adiciona ou atualiza um registro; retorna `false` se nada mudou
+  bool upsert(String id, DateTime date, double mediumAmount, double oraculumAmount) {
+    final day = dayNumber(date);
+    final previous = _records[id];
+
+    if (previous != null) {
+      if (previous.day == day &&
+          previous.medium == mediumAmount &&
+          previous.oraculum == oraculumAmount) {
+        return false;
+      }
+      _applyToDay(previous.day, -previous.medium, -previous.oraculum, -1);
+    }
+
+    _records[id] = (day: day, medium: mediumAmount, oraculum: oraculumAmount);
+    _applyToDay(day, mediumAmount, oraculumAmount, 1);
+    _version++;
+    return true;
+  }
+
+  /// Remove um registro; retorna `false` se ele não estava na série
+  bool remove(String id) {
+    final previous = _records.remove(id);
+    if (previous == null) return false;
+
+    _applyToDay(previous.day, -previous.medium, -previous.oraculum, -1);
+    _version++;
+    return true;
+  }
+
+  /// Aplica apenas os registros alterados, como os `docChanges` de um
+  /// snapshot: [upserted] no formato de [sync] e os ids de [removed].
+  /// Retorna quantos registros mudaram.
+  int applyChanges({
+    Iterable<Map<String, dynamic>> upserted = const [],
+    Iterable<String> removed = const [],
+  }) {
+    var changes = 0;
+
+    for (final record in upserted) {
+      if (_upsertRecord(record) case (_, true)) changes++;
+    }
+    for (final id in removed) {
+      if (remove(id)) changes++;
+    }
+
+    return changes;
+  }
+
+  /// Sincroniza a série com a lista completa [records] (no formato de
+  /// `getEarningsHistory`): adiciona os novos, atualiza os alterados e remove
+  /// os ausentes. Percorre a série inteira; com um listener, prefira
+  /// [applyChanges]. Retorna quantos registros mudaram.
+  int sync(Iterable<Map<String, dynamic>> records) {
+    var changes = 0;
+    final seen = <String>{};
+
+    for (final record in records) {
+      final (id, changed) = _upsertRecord(record);
+      if (id == null) continue;
+
+      seen.add(id);
+      if (changed) changes++;
+    }
+
+    final removed = _records.keys.where((id) => !seen.contains(id)).toList();
+    for (final id in removed) {
+      remove(id);
+      changes++;
+    }
+
+    return changes;
+  }
+
+  /// Id do registro (`null` se ele não tiver id ou data) e se a série mudou
+  (String?, bool) _upsertRecord(Map<String, dynamic> record) {
+    final id = record['id']?.toString();
+    final rawDate = record['date'];
+    if (id == null || rawDate == null) return (null, false);
+
+    final date = rawDate is DateTime ? rawDate : rawDate.toDate() as DateTime;
+    final changed = upsert(
+      id,
+      date,
+      (record['mediumAmount'] ?? 0.0).toDouble(),
+      (record['oraculumAmount'] ?? 0.0).toDouble(),
+    );
+    return (id, changed);
+  }
+
+  void clear() {
+    if (_records.isEmpty && _days.isEmpty) return;
+    _days.clear();
+    _medium.clear();
+    _oraculum.clear();
+    _recordCounts.clear();
+    _records.clear();
+    _version++;
+  }
+
+  /// Pontos diários entre [from] e [to] (inclusive), reduzidos a no máximo
+  /// [maxPoints] quando informado; o primeiro e o último dia são mantidos
+  List<EarningsPoint> points({DateTime? from, DateTime? to, int maxPoints = 0}) {
+    final lo = from == null ? 0 : _lowerBound(dayNumber(from));
+    final hi = to == null ? _days.length : _lowerBound(dayNumber(to) + 1);
+
+    final key = (_version, lo, hi, maxPoints);
+    if (key == _cacheKey) return _cache;
+
+    final count = hi - lo;
+    final List<EarningsPoint> result;
+
+    if (count <= 0) {
+      result = const [];
+    } else if (maxPoints < 3 || count <= maxPoints) {
+      result = [for (var i = lo; i < hi; i++) _pointAt(i)];
+    } else {
+      result = [for (final i in _largestTriangleThreeBuckets(lo, hi, maxPoints)) _pointAt(i)];
+    }
+
+    _cacheKey = key;
+    _cache = List.unmodifiable(result);
+    return _cache;
+  }
+
+  EarningsPoint _pointAt(int index) {
+    return EarningsPoint(dateOf(_days[index]), _medium[index], _oraculum[index]);
+  }
+
+  /// Índices escolhidos pelo LTTB na janela `[lo, hi)`
+  List<int> _largestTriangleThreeBuckets(int lo, int hi, int threshold) {
+    final count = hi - lo;
+    final sampled = <int>[lo];
+    final every = (count - 2) / (threshold - 2);
+
+    var a = lo;
+    for (var i = 0; i < threshold - 2; i++) {
+      // Média do próximo balde, usada como terceiro vértice
+      var avgStart = lo + ((i + 1) * every).floor() + 1;
+      var avgEnd = lo + ((i + 2) * every).floor() + 1;
+      if (avgEnd > hi) avgEnd = hi;
+      if (avgStart >= avgEnd) avgStart = avgEnd - 1;
+
+      var avgX = 0.0;
+      var avgY = 0.0;
+      for (var j = avgStart; j < avgEnd; j++) {
+        avgX += _days[j];
+        avgY += _medium[j];
+      }
+      final avgLength = avgEnd - avgStart;
+      avgX /= avgLength;
+      avgY /= avgLength;
+
+      // Ponto do balde atual que forma o maior triângulo
+      final rangeStart = lo + (i * every).floor() + 1;
+      final rangeEnd = lo + ((i + 1) * every).floor() + 1;
+
+      final ax = _days[a].toDouble();
+      final ay = _medium[a];
+      var maxArea = -1.0;
+      var next = rangeStart;
+
+      for (var j = rangeStart; j < rangeEnd && j < hi - 1; j++) {
+        final area = ((ax - avgX) * (_medium[j] - ay) - (ax - _days[j]) * (avgY - ay)).abs();
+        if (area > maxArea) {
+          maxArea = area;
+          next = j;
+        }
+      }
+
+      sampled.add(next);
+      a = next;
+    }
+
+    sampled.add(hi - 1);
+    return sampled;
+  }
+
+  void _applyToDay(int day, double medium, double oraculum, int recordDelta) {
+    final index = _lowerBound(day);
+
+    if (index < _days.length && _days[index] == day) {
+      final records = _recordCounts[index] + recordDelta;
+      if (records <= 0) {
+        _days.removeAt(index);
+        _medium.removeAt(index);
+        _oraculum.removeAt(index);
+        _recordCounts.removeAt(index);
+      } else {
+        _medium[index] += medium;
+        _oraculum[index] += oraculum;
+        _recordCounts[index] = records;
+      }
+      return;
+    }
+
+    if (recordDelta <= 0) return;
+
+    // Registros costumam chegar em ordem, então isto é quase sempre um append
+    _days.insert(index, day);
+    _medium.insert(index, medium);
+    _oraculum.insert(index, oraculum);
+    _recordCounts.insert(index, recordDelta);
+  }
+
+  int _lowerBound(int day) {
+    var low = 0;
+    var high = _days.length;
+    while (low < high) {
+      final mid = (low + high) >> 1;
+      if (_days[mid] < day) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,41 @@
+import 'package:flutter/foundation.dart';
+
+/// Contador de reconstruções de widgets, usado para medir o efeito
+/// das atualizações em lote e dos seletores reativos
+class RebuildProfiler {
+  /// Ativo apenas em debug/profile para não custar nada em release
+  static bool enabled = kDebugMode || kProfileMode;
+
+  static final Map<String, int> _counts = {};
+
+  /// Registra uma reconstrução para o rótulo informado
+  static void record(String label) {
+    if (!enabled) return;
+    _counts[label] = (_counts[label] ?? 0) + 1;
+  }
+
+  /// Quantidade de reconstruções registradas para um rótulo
+  static int count(String label) => _counts[label] ?? 0;
+
+  /// Cópia imutável dos contadores atuais
+  static Map<String, int> snapshot() => Map.unmodifiable(_counts);
+
+  /// Zera todos os contadores
+  static void reset() => _counts.clear();
+
+  /// Imprime os contadores ordenados do mais reconstruído para o menos
+  static void report() {
+    if (_counts.isEmpty) {
+      debugPrint('📊 RebuildProfiler: nenhuma reconstrução registrada');
+      return;
+    }
+
+    final entries = _counts.entries.toList()
+      ..sort((a, b) => b.value.compareTo(a.value));
+
+    debugPrint('📊 RebuildProfiler:');
+    for (final entry in entries) {
+      debugPrint('  - ${entry.key}: ${entry.value}');
+    }
+  }
+}
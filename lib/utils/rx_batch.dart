@@ -0,0 +1,76 @@
+import 'dart:collection';
+
+import 'package:flutter/foundation.dart';
+import 'package:flutter/scheduler.dart';
+import 'package:get/get.dart';
+
+/// Agrupa várias escritas em variáveis `Rx` e as aplica de uma só vez
+/// no início do próximo frame, gerando uma única notificação por variável
+class RxBatch {
+  RxBatch._();
+
+  static final RxBatch instance = RxBatch._();
+
+  // Por identidade: o `==` das variáveis Rx compara o valor guardado, e duas
+  // variáveis diferentes com o mesmo valor colidiriam na mesma chave
+  final Map<RxObjectMixin, VoidCallback> _pending =
+      LinkedHashMap<RxObjectMixin, VoidCallback>.identity();
+  bool _scheduled = false;
+
+  /// Quantidade de escritas descartadas por serem sobrescritas ou redundantes
+  int coalescedWrites = 0;
+
+  /// Quantidade de escritas efetivamente aplicadas
+  int appliedWrites = 0;
+
+  bool get hasPending => _pending.isNotEmpty;
+
+  /// Agenda a escrita de [value] em [target]; a última escrita vence
+  void set<T>(RxObjectMixin<T> target, T value) {
+    if (_pending.remove(target) != null) {
+      coalescedWrites++;
+    }
+
+    _pending[target] = () {
+      if (isSame(target.value, value)) {
+        coalescedWrites++;
+        return;
+      }
+      target.value = value;
+      appliedWrites++;
+    };
+
+    _scheduleFlush();
+  }
+
+  /// Aplica todas as escritas pendentes
+  void flush() {
+    _scheduled = false;
+    if (_pending.isEmpty) return;
+
+    final writes = _pending.values.toList();
+    _pending.clear();
+
+    for (final write in writes) {
+      write();
+    }
+  }
+
+  void _scheduleFlush() {
+    if (_scheduled) return;
+    _scheduled = true;
+
+    final scheduler = SchedulerBinding.instance;
+    scheduler.scheduleFrameCallback((_) => flush());
+    scheduler.scheduleFrame();
+  }
+
+  /// Igualdade rasa que também compara o conteúdo de listas e mapas
+  static bool isSame(Object? a, Object? b) {
+    if (identical(a, b)) return true;
+    if (a is List && b is List) return listEquals(a, b);
+    if (a is Map && b is Map) return mapEquals(a, b);
+    if (a is Set && b is Set) return setEquals(a, b);
+    return a == b;
+  }
+}
@@ -0,0 +1,89 @@
+import 'dart:async';
+
+/// Fonte de tempo e de temporizadores periódicos para os agendadores;
+/// permite trocar o relógio do sistema por um relógio simulado
+abstract class SchedulerClock {
+  DateTime now();
+
+  Timer periodic(Duration period, void Function() callback);
+}
+
+/// Relógio real, baseado em [DateTime.now] e [Timer.periodic]
+class SystemSchedulerClock implements SchedulerClock {
+  const SystemSchedulerClock();
+
+  @override
+  DateTime now() => DateTime.now();
+
+  @override
+  Timer periodic(Duration period, void Function() callback) {
+    return Timer.periodic(period, (_) => callback());
+  }
+}
+
+/// Relógio simulado e determinístico: o tempo só anda em [advance], que
+/// dispara os temporizadores periódicos na ordem exata em que venceriam
+class FakeSchedulerClock implements SchedulerClock {
+  DateTime _now;
+  final List<_FakePeriodicTimer> _timers = [];
+
+  FakeSchedulerClock(DateTime start) : _now = start;
+
+  @override
+  DateTime now() => _now;
+
+  @override
+  Timer periodic(Duration period, void Function() callback) {
+    assert(period > Duration.zero);
+    final timer = _FakePeriodicTimer(this, period, _now.add(period), callback);
+    _timers.add(timer);
+    return timer;
+  }
+
+  int get activeTimers => _timers.length;
+
+  /// Avança o relógio em [duration], disparando cada temporizador vencido
+  void advance(Duration duration) {
+    final target = _now.add(duration);
+
+    while (true) {
+      _FakePeriodicTimer? next;
+      for (final timer in _timers) {
+        if (next == null || timer._nextFire.isBefore(next._nextFire)) next = timer;
+      }
+
+      if (next == null || next._nextFire.isAfter(target)) break;
+
+      _now = next._nextFire;
+      next._nextFire = next._nextFire.add(next._period);
+      next._tick++;
+      next._callback();
+    }
+
+    _now = target;
+  }
+
+  /// Move o relógio para [time], como em [advance]
+  void advanceTo(DateTime time) {
+    if (time.isAfter(_now)) advance(time.difference(_now));
+  }
+}
+
+class _FakePeriodicTimer implements Timer {
+  final FakeSchedulerClock _clock;
+  final Duration _period;
+  final void Function() _callback;
+  DateTime _nextFire;
+  int _tick = 0;
+
+  _FakePeriodicTimer(this._clock, this._period, this._nextFire, this._callback);
+
+  @override
+  bool get isActive => _clock._timers.contains(this);
+
+  @override
+  int get tick => _tick;
+
+  @override
+  void cancel() => _clock._timers.remove(this);
+}
@@ -0,0 +1,207 @@
+/// Roda de temporizadores hierárquica
+///
+/// Os prazos são arredondados para ticks de [tickMs] e distribuídos em
+/// [levels] níveis de 64 posições: o nível 0 cobre os próximos 64 ticks, o
+/// nível 1 os próximos 64² e assim por diante. Inserir, substituir e
+/// cancelar são O(1); ao avançar, cada posição do nível 0 é disparada e, a
+/// cada volta completa de um nível, a posição correspondente do nível de
+/// cima é redistribuída para baixo. Prazos além do alcance da roda ficam no
+/// último nível e são redistribuídos até chegarem ao seu tick.
+///
+/// A roda não lê o relógio: quem a usa informa o tempo atual em [advanceTo],
+/// o que permite conduzi-la com um relógio simulado.
+class TimerWheel<K, T> {
+  static const int _slotBits = 6;
+  static const int _slotCount = 1 << _slotBits;
+  static const int _slotMask = _slotCount - 1;
+
+  final int tickMs;
+  final int levels;
+
+  final List<List<_WheelEntry<K, T>?>> _slots;
+  final Map<K, _WheelEntry<K, T>> _entries = {};
+  final int _maxSpan;
+
+  int _currentTick;
+
+  /// Quantidade de entradas redistribuídas entre níveis
+  int cascadedEntries = 0;
+
+  TimerWheel({
+    required int startMs,
+    this.tickMs = 1000,
+    this.levels = 4,
+  })  : assert(tickMs > 0),
+        assert(levels > 0 && levels <= 8),
+        _currentTick = startMs ~/ tickMs,
+        _maxSpan = 1 << (_slotBits * levels),
+        _slots = List.generate(levels, (_) => List<_WheelEntry<K, T>?>.filled(_slotCount, null));
+
+  int get length => _entries.length;
+
+  bool get isEmpty => _entries.isEmpty;
+
+  bool contains(K key) => _entries.containsKey(key);
+
+  /// Tempo (em ms) do último tick processado
+  int get currentMs => _currentTick * tickMs;
+
+  /// Agenda [payload] para [deadlineMs], substituindo qualquer entrada com a
+  /// mesma [key]; prazos já vencidos disparam no próximo tick
+  void schedule(K key, int deadlineMs, T payload) {
+    cancel(key);
+
+    var deadlineTick = (deadlineMs + tickMs - 1) ~/ tickMs;
+    if (deadlineTick <= _currentTick) deadlineTick = _currentTick + 1;
+
+    final entry = _WheelEntry<K, T>(key, deadlineTick, payload);
+    _entries[key] = entry;
+    _place(entry);
+  }
+
+  /// Remove a entrada com [key]; retorna `false` se ela não existia
+  bool cancel(K key) {
+    final entry = _entries.remove(key);
+    if (entry == null) return false;
+    _unlink(entry);
+    return true;
+  }
+
+  /// Remove todas as entradas
+  void clear() {
+    for (final level in _slots) {
+      level.fillRange(0, _slotCount, null);
+    }
+    _entries.clear();
+  }
+
+  /// Processa todos os ticks até [nowMs], chamando [onExpire] para cada
+  /// entrada vencida na ordem dos prazos; retorna quantas dispararam
+  int advanceTo(int nowMs, void Function(K key, T payload) onExpire) {
+    final targetTick = nowMs ~/ tickMs;
+    var fired = 0;
+
+    while (_currentTick < targetTick) {
+      // Sem entradas não há o que redistribuir: salta direto para o destino
+      if (_entries.isEmpty) {
+        _currentTick = targetTick;
+        break;
+      }
+
+      _currentTick++;
+      _cascade();
+
+      final index = _currentTick & _slotMask;
+      var entry = _slots[0][index];
+      _slots[0][index] = null;
+
+      // A posição é esvaziada antes dos callbacks, que podem agendar ou
+      // cancelar outras entradas
+      final expired = <_WheelEntry<K, T>>[];
+      while (entry != null) {
+        final next = entry.next;
+        entry
+          ..previous = null
+          ..next = null
+          ..level = -1;
+
+        if (entry.deadlineTick <= _currentTick) {
+          _entries.remove(entry.key);
+          expired.add(entry);
+        } else {
+          _place(entry);
+        }
+
+        entry = next;
+      }
+
+      for (final due in expired) {
+        fired++;
+        onExpire(due.key, due.payload);
+      }
+    }
+
+    return fired;
+  }
+
+  /// Redistribui, do nível mais alto para o mais baixo, as posições que
+  /// completaram uma volta neste tick
+  void _cascade() {
+    var level = 1;
+    while (level < levels &&
+        (_currentTick & ((1 << (_slotBits * level)) - 1)) == 0) {
+      level++;
+    }
+
+    for (var l = level - 1; l >= 1; l--) {
+      final index = (_currentTick >> (_slotBits * l)) & _slotMask;
+      var entry = _slots[l][index];
+      _slots[l][index] = null;
+
+      while (entry != null) {
+        final next = entry.next;
+        entry
+          ..previous = null
+          ..next = null
+          ..level = -1;
+        _place(entry);
+        cascadedEntries++;
+        entry = next;
+      }
+    }
+  }
+
+  void _place(_WheelEntry<K, T> entry) {
+    var delta = entry.deadlineTick - _currentTick;
+    if (delta >= _maxSpan) delta = _maxSpan - 1;
+
+    var level = 0;
+    while (level < levels - 1 && delta >= 1 << (_slotBits * (level + 1))) {
+      level++;
+    }
+
+    final slotTick = _currentTick + delta;
+    final index = (slotTick >> (_slotBits * level)) & _slotMask;
+
+    final head = _slots[level][index];
+    entry
+      ..level = level
+      ..slot = index
+      ..previous = null
+      ..next = head;
+    head?.previous = entry;
+    _slots[level][index] = entry;
+  }
+
+  void _unlink(_WheelEntry<K, T> entry) {
+    if (entry.level < 0) return;
+
+    final previous = entry.previous;
+    final next = entry.next;
+
+    if (previous != null) {
+      previous.next = next;
+    } else {
+      _slots[entry.level][entry.slot] = next;
+    }
+    next?.previous = previous;
+
+    entry
+      ..previous = null
+      ..next = null
+      ..level = -1;
+  }
+}
+
+class _WheelEntry<K, T> {
+  final K key;
+  final int deadlineTick;
+  final T payload;
+
+  int level = -1;
+  int slot = 0;
+  _WheelEntry<K, T>? previous;
+  _WheelEntry<K, T>? next;
+
+  _WheelEntry(this.key, this.deadlineTick, this.payload);
+}
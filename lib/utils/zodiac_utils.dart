@@ -1,10 +1,14 @@
 import 'dart:math';
+import 'dart:typed_data';
 
 import 'package:flutter/material.dart';
 import 'package:flutter_animate/flutter_animate.dart';
 
 /// Classe utilitária para elementos relacionados aos signos do zodíaco
 /// que são compartilhados em múltiplas telas do aplicativo
+///
+/// Os signos são indexados de 0 a 11 na ordem de [allSigns]; as consultas
+/// usam tabelas constantes indexadas por esse número, sem alocar mapas.
 class ZodiacUtils {
   /// Lista com todos os signos do zodíaco na ordem tradicional
   static const List<String> allSigns = [
@@ -13,87 +17,155 @@ class ZodiacUtils {
     'Sagitário', 'Capricórnio', 'Aquário', 'Peixes'
   ];
 
+  static const int signCount = 12;
+
+  /// Índice usado para signos desconhecidos
+  static const int unknownSign = -1;
+
+  /// Pontuação usada quando um dos signos é desconhecido
+  static const double defaultCompatibility = 0.7;
+
+  static const List<String> _signElements = [
+    'Fogo', 'Terra', 'Ar', 'Água',
+    'Fogo', 'Terra', 'Ar', 'Água',
+    'Fogo', 'Terra', 'Ar', 'Água',
+  ];
+
+  static const List<String> _signModalities = [
+    'Cardinal', 'Fixo', 'Mutável', 'Cardinal',
+    'Fixo', 'Mutável', 'Cardinal', 'Fixo',
+    'Mutável', 'Cardinal', 'Fixo', 'Mutável',
+  ];
+
+  static const List<String> _signRulers = [
+    'Marte', 'Vênus', 'Mercúrio', 'Lua',
+    'Sol', 'Mercúrio', 'Vênus', 'Plutão',
+    'Júpiter', 'Saturno', 'Urano', 'Netuno',
+  ];
+
+  static const List<String> _signDates = [
+    '21 de março - 19 de abril',
+    '20 de abril - 20 de maio',
+    '21 de maio - 20 de junho',
+    '21 de junho - 22 de julho',
+    '23 de julho - 22 de agosto',
+    '23 de agosto - 22 de setembro',
+    '23 de setembro - 22 de outubro',
+    '23 de outubro - 21 de novembro',
+    '22 de novembro - 21 de dezembro',
+    '22 de dezembro - 19 de janeiro',
+    '20 de janeiro - 18 de fevereiro',
+    '19 de fevereiro - 20 de março',
+  ];
+
+  /// Compatibilidade entre signos (linha: signo de origem, coluna: signo
+  /// comparado), pré-calculada a partir da matriz de elementos e das
+  /// compatibilidades especiais; a tabela não é simétrica.
+  static final Float64List _compatibility = Float64List.fromList(const [
+    0.80, 0.40, 0.90, 0.30, 0.85, 0.40, 0.90, 0.30, 0.90, 0.40, 0.90, 0.30, // Áries
+    0.40, 0.70, 0.50, 0.90, 0.40, 0.70, 0.50, 0.85, 0.40, 0.90, 0.50, 0.90, // Touro
+    0.90, 0.50, 0.80, 0.40, 0.90, 0.50, 0.80, 0.40, 0.85, 0.50, 0.90, 0.40, // Gêmeos
+    0.30, 0.90, 0.40, 0.80, 0.30, 0.90, 0.40, 0.90, 0.30, 0.85, 0.40, 0.90, // Câncer
+    0.85, 0.40, 0.90, 0.30, 0.80, 0.40, 0.90, 0.30, 0.90, 0.40, 0.85, 0.30, // Leão
+    0.40, 0.70, 0.50, 0.90, 0.40, 0.70, 0.50, 0.90, 0.40, 0.70, 0.50, 0.85, // Virgem
+    0.85, 0.50, 0.80, 0.40, 0.90, 0.50, 0.80, 0.40, 0.90, 0.50, 0.90, 0.40, // Libra
+    0.30, 0.85, 0.40, 0.90, 0.30, 0.90, 0.40, 0.80, 0.30, 0.90, 0.40, 0.80, // Escorpião
+    0.90, 0.40, 0.85, 0.30, 0.90, 0.40, 0.90, 0.30, 0.80, 0.40, 0.90, 0.30, // Sagitário
+    0.40, 0.90, 0.50, 0.85, 0.40, 0.70, 0.50, 0.90, 0.40, 0.70, 0.50, 0.90, // Capricórnio
+    0.90, 0.50, 0.90, 0.40, 0.85, 0.50, 0.90, 0.40, 0.90, 0.50, 0.80, 0.40, // Aquário
+    0.30, 0.90, 0.40, 0.90, 0.30, 0.85, 0.40, 0.80, 0.30, 0.90, 0.40, 0.80, // Peixes
+  ]);
+
+  /// Dia em que começa o signo de cada mês e o signo que começa nele;
+  /// antes desse dia vale o signo iniciado no mês anterior
+  static const List<int> _monthCutoffDays = [20, 19, 21, 20, 21, 21, 23, 23, 23, 23, 22, 22];
+  static const List<int> _signStartingInMonth = [10, 11, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9];
+
+  /// Deslocamento de cada mês em um ano bissexto, para que 29/02 tenha posição própria
+  static const List<int> _monthOffsets = [0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335];
+
+  /// Signo de cada dia do ano (366 posições)
+  static final Uint8List _signByDayOfYear = _buildDayOfYearTable();
+
+  static Uint8List _buildDayOfYearTable() {
+    const monthLengths = [31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31];
+    final table = Uint8List(366);
+
+    for (var month = 0; month < 12; month++) {
+      final previousSign = _signStartingInMonth[(month + 11) % 12];
+      for (var day = 1; day <= monthLengths[month]; day++) {
+        table[_monthOffsets[month] + day - 1] =
+            day < _monthCutoffDays[month] ? previousSign : _signStartingInMonth[month];
+      }
+    }
+
+    return table;
+  }
+
+  /// Índice do signo em [allSigns], ou [unknownSign]
+  static int signIndex(String? sign) {
+    switch (sign) {
+      case 'Áries':
+        return 0;
+      case 'Touro':
+        return 1;
+      case 'Gêmeos':
+        return 2;
+      case 'Câncer':
+        return 3;
+      case 'Leão':
+        return 4;
+      case 'Virgem':
+        return 5;
+      case 'Libra':
+        return 6;
+      case 'Escorpião':
+        return 7;
+      case 'Sagitário':
+        return 8;
+      case 'Capricórnio':
+        return 9;
+      case 'Aquário':
+        return 10;
+      case 'Peixes':
+        return 11;
+      default:
+        return unknownSign;
+    }
+  }
+
   /// Retorna o elemento associado a um signo
   static String getElement(String sign) {
-    final Map<String, String> signElements = {
-      'Áries': 'Fogo', 'Leão': 'Fogo', 'Sagitário': 'Fogo',
-      'Touro': 'Terra', 'Virgem': 'Terra', 'Capricórnio': 'Terra',
-      'Gêmeos': 'Ar', 'Libra': 'Ar', 'Aquário': 'Ar',
-      'Câncer': 'Água', 'Escorpião': 'Água', 'Peixes': 'Água',
-    };
-
-    return signElements[sign] ?? 'Desconhecido';
+    final index = signIndex(sign);
+    return index < 0 ? 'Desconhecido' : _signElements[index];
   }
 
   /// Retorna a modalidade/qualidade associada a um signo (Cardinal, Fixo, Mutável)
   static String getModality(String sign) {
-    final Map<String, String> signModalities = {
-      'Áries': 'Cardinal', 'Câncer': 'Cardinal', 'Libra': 'Cardinal', 'Capricórnio': 'Cardinal',
-      'Touro': 'Fixo', 'Leão': 'Fixo', 'Escorpião': 'Fixo', 'Aquário': 'Fixo',
-      'Gêmeos': 'Mutável', 'Virgem': 'Mutável', 'Sagitário': 'Mutável', 'Peixes': 'Mutável',
-    };
-
-    return signModalities[sign] ?? 'Desconhecido';
+    final index = signIndex(sign);
+    return index < 0 ? 'Desconhecido' : _signModalities[index];
   }
 
   /// Obtém o planeta regente de um signo
   static String getRulingPlanet(String sign) {
-    final Map<String, String> signRulers = {
-      'Áries': 'Marte',
-      'Touro': 'Vênus',
-      'Gêmeos': 'Mercúrio',
-      'Câncer': 'Lua',
-      'Leão': 'Sol',
-      'Virgem': 'Mercúrio',
-      'Libra': 'Vênus',
-      'Escorpião': 'Plutão',
-      'Sagitário': 'Júpiter',
-      'Capricórnio': 'Saturno',
-      'Aquário': 'Urano',
-      'Peixes': 'Netuno',
-    };
-
-    return signRulers[sign] ?? 'Desconhecido';
+    final index = signIndex(sign);
+    return index < 0 ? 'Desconhecido' : _signRulers[index];
   }
 
   /// Retorna o período aproximado do signo (datas)
   static String getDateRange(String sign) {
-    final Map<String, String> signDates = {
-      'Áries': '21 de março - 19 de abril',
-      'Touro': '20 de abril - 20 de maio',
-      'Gêmeos': '21 de maio - 20 de junho',
-      'Câncer': '21 de junho - 22 de julho',
-      'Leão': '23 de julho - 22 de agosto',
-      'Virgem': '23 de agosto - 22 de setembro',
-      'Libra': '23 de setembro - 22 de outubro',
-      'Escorpião': '23 de outubro - 21 de novembro',
-      'Sagitário': '22 de novembro - 21 de dezembro',
-      'Capricórnio': '22 de dezembro - 19 de janeiro',
-      'Aquário': '20 de janeiro - 18 de fevereiro',
-      'Peixes': '19 de fevereiro - 20 de março',
-    };
-
-    return signDates[sign] ?? 'Período desconhecido';
+    final index = signIndex(sign);
+    return index < 0 ? 'Período desconhecido' : _signDates[index];
+  }
+
+  /// Índice do signo para uma data de nascimento
+  static int signIndexFromDate(DateTime birthDate) {
+    return _signByDayOfYear[_monthOffsets[birthDate.month - 1] + birthDate.day - 1];
   }
 
   /// Determina o signo com base na data de nascimento
   static String getZodiacSignFromDate(DateTime birthDate) {
-    final day = birthDate.day;
-    final month = birthDate.month;
-
-    if ((month == 1 && day >= 20) || (month == 2 && day <= 18)) return 'Aquário';
-    if ((month == 2 && day >= 19) || (month == 3 && day <= 20)) return 'Peixes';
-    if ((month == 3 && day >= 21) || (month == 4 && day <= 19)) return 'Áries';
-    if ((month == 4 && day >= 20) || (month == 5 && day <= 20)) return 'Touro';
-    if ((month == 5 && day >= 21) || (month == 6 && day <= 20)) return 'Gêmeos';
-    if ((month == 6 && day >= 21) || (month == 7 && day <= 22)) return 'Câncer';
-    if ((month == 7 && day >= 23) || (month == 8 && day <= 22)) return 'Leão';
-    if ((month == 8 && day >= 23) || (month == 9 && day <= 22)) return 'Virgem';
-    if ((month == 9 && day >= 23) || (month == 10 && day <= 22)) return 'Libra';
-    if ((month == 10 && day >= 23) || (month == 11 && day <= 21)) return 'Escorpião';
-    if ((month == 11 && day >= 22) || (month == 12 && day <= 21)) return 'Sagitário';
-
-    return 'Capricórnio';
+    return allSigns[signIndexFromDate(birthDate)];
   }
 
   /// Widget para exibir a imagem do signo
@@ -479,52 +551,125 @@ class ZodiacUtils {
 
   /// Simular um score de compatibilidade baseado nos signos
   static double calculateCompatibilityScore(String sign1, String sign2) {
-    // Compatibilidade por elementos
-    final element1 = getElement(sign1);
-    final element2 = getElement(sign2);
-
-    // Matriz de compatibilidade entre elementos
-    Map<String, Map<String, double>> elementCompatibility = {
-      'Fogo': {'Fogo': 0.8, 'Terra': 0.4, 'Ar': 0.9, 'Água': 0.3},
-      'Terra': {'Fogo': 0.4, 'Terra': 0.7, 'Ar': 0.5, 'Água': 0.9},
-      'Ar': {'Fogo': 0.9, 'Terra': 0.5, 'Ar': 0.8, 'Água': 0.4},
-      'Água': {'Fogo': 0.3, 'Terra': 0.9, 'Ar': 0.4, 'Água': 0.8},
-    };
-
-    // Compatibilidades específicas de alguns signos
-    Map<String, Map<String, double>> specialCompatibility = {
-      'Áries': {'Libra': 0.9, 'Leão': 0.85},
-      'Touro': {'Escorpião': 0.85, 'Câncer': 0.9},
-      'Gêmeos': {'Sagitário': 0.85, 'Aquário': 0.9},
-      'Câncer': {'Capricórnio': 0.85, 'Peixes': 0.9},
-      'Leão': {'Aquário': 0.85, 'Sagitário': 0.9},
-      'Virgem': {'Peixes': 0.85, 'Escorpião': 0.9},
-      'Libra': {'Áries': 0.85, 'Aquário': 0.9},
-      'Escorpião': {'Touro': 0.85, 'Câncer': 0.9},
-      'Sagitário': {'Gêmeos': 0.85, 'Áries': 0.9},
-      'Capricórnio': {'Câncer': 0.85, 'Touro': 0.9},
-      'Aquário': {'Leão': 0.85, 'Libra': 0.9},
-      'Peixes': {'Virgem': 0.85, 'Câncer': 0.9},
-    };
-
-    // Verificar se há uma compatibilidade especial entre esses signos
-    if (specialCompatibility.containsKey(sign1) &&
-        specialCompatibility[sign1]!.containsKey(sign2)) {
-      return specialCompatibility[sign1]![sign2]!;
+    return compatibilityByIndex(signIndex(sign1), signIndex(sign2));
+  }
+
+  /// Compatibilidade entre dois signos já indexados
+  static double compatibilityByIndex(int sign1, int sign2) {
+    if (sign1 < 0 || sign2 < 0) return defaultCompatibility;
+    return _compatibility[sign1 * signCount + sign2];
+  }
+
+  /// Buckets de ordenação: um por signo e um para signos desconhecidos
+  static const int _bucketCount = signCount + 1;
+
+  /// Para cada signo do cliente, a ordem dos buckets da maior para a menor
+  /// compatibilidade; empates mantêm a ordem de [allSigns]
+  static final Uint8List _rankedBuckets = _buildRankedBuckets();
+
+  static final Int32List _bucketOffsets = Int32List(_bucketCount);
+
+  static Uint8List _buildRankedBuckets() {
+    final table = Uint8List(signCount * _bucketCount);
+    final buckets = List<int>.generate(_bucketCount, (i) => i);
+
+    for (var client = 0; client < signCount; client++) {
+      double scoreOf(int bucket) =>
+          compatibilityByIndex(client, bucket == signCount ? unknownSign : bucket);
+
+      final ranked = List<int>.of(buckets)
+        ..sort((a, b) {
+          final byScore = scoreOf(b).compareTo(scoreOf(a));
+          return byScore != 0 ? byScore : a.compareTo(b);
+        });
+      table.setAll(client * _bucketCount, ranked);
+    }
+
+    return table;
+  }
+
+  /// Ordena médiuns pela compatibilidade com o signo do cliente
+  ///
+  /// [mediumSigns] traz o índice do signo de cada médium (ou [unknownSign]);
+  /// ao final, [order] contém as posições de [mediumSigns] da mais para a
+  /// menos compatível e [scores], se informado, a pontuação de cada posição
+  /// de [order]; [length] limita a ordenação ao início de [mediumSigns].
+  ///
+  /// Como a pontuação depende só do signo, a ordenação é uma contagem por
+  /// signo em O(n), estável e sem alocações — os buffers são do chamador e
+  /// podem ser reutilizados entre chamadas.
+  static void rankSignIndices(
+      int clientSign,
+      List<int> mediumSigns,
+      Int32List order, {
+        Float64List? scores,
+        int? length,
+      }) {
+    final count = length ?? mediumSigns.length;
+    assert(order.length >= count);
+    assert(scores == null || scores.length >= count);
+
+    // Sem signo do cliente todas as pontuações empatam
+    if (clientSign < 0 || clientSign >= signCount) {
+      for (var i = 0; i < count; i++) {
+        order[i] = i;
+        if (scores != null) scores[i] = defaultCompatibility;
+      }
+      return;
+    }
+
+    final offsets = _bucketOffsets..fillRange(0, _bucketCount, 0);
+    for (var i = 0; i < count; i++) {
+      offsets[_bucketOf(mediumSigns[i])]++;
     }
-    if (specialCompatibility.containsKey(sign2) &&
-        specialCompatibility[sign2]!.containsKey(sign1)) {
-      return specialCompatibility[sign2]![sign1]!;
+
+    final base = clientSign * _bucketCount;
+    var start = 0;
+    for (var rank = 0; rank < _bucketCount; rank++) {
+      final bucket = _rankedBuckets[base + rank];
+      final size = offsets[bucket];
+      offsets[bucket] = start;
+      start += size;
     }
 
-    // Caso contrário, usar a compatibilidade por elementos
-    if (elementCompatibility.containsKey(element1) &&
-        elementCompatibility[element1]!.containsKey(element2)) {
-      return elementCompatibility[element1]![element2]!;
+    for (var i = 0; i < count; i++) {
+      final sign = mediumSigns[i];
+      final position = offsets[_bucketOf(sign)]++;
+      order[position] = i;
+      if (scores != null) scores[position] = compatibilityByIndex(clientSign, sign);
     }
+  }
+
+  static int _bucketOf(int sign) => sign < 0 || sign >= signCount ? signCount : sign;
+
+  static Int8List _signScratch = Int8List(0);
+  static Int32List _orderScratch = Int32List(0);
+
+  /// Versão de conveniência de [rankSignIndices] para listas de objetos;
+  /// aloca apenas a lista de resultado e reaproveita os buffers internos
+  static List<T> rankBySign<T>(
+      String clientSign,
+      List<T> items,
+      String? Function(T item) signOf,
+      ) {
+    final count = items.length;
+    if (_signScratch.length < count) {
+      _signScratch = Int8List(count);
+      _orderScratch = Int32List(count);
+    }
+
+    for (var i = 0; i < count; i++) {
+      _signScratch[i] = signIndex(signOf(items[i]));
+    }
+
+    rankSignIndices(
+      signIndex(clientSign),
+      _signScratch,
+      _orderScratch,
+      length: count,
+    );
 
-    // Valor padrão caso algo dê errado
-    return 0.7;
+    return List<T>.generate(count, (i) => items[_orderScratch[i]]);
   }
 
   /// Widget para exibir uma barra de compatibilidade entre signos
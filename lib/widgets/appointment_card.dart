@@ -325,6 +325,8 @@ class AppointmentCard extends StatelessWidget {
       case 'cancelled':
       case 'canceled':
         return Colors.red;
+      case 'rejected':
+        return Colors.brown;
       default:
         return Colors.grey;
     }
@@ -0,0 +1,377 @@
+import 'dart:math' as math;
+
+import 'package:fl_chart/fl_chart.dart';
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:intl/intl.dart';
+import 'package:oraculum_medium/controllers/earnings_controller.dart';
+import 'package:oraculum_medium/utils/earnings_series.dart';
+import 'package:oraculum_medium/utils/rebuild_profiler.dart';
+
+/// Gráfico de ganhos diários com zoom e arrasto
+///
+/// A quantidade de pontos desenhados é limitada pela largura disponível
+/// ([pixelsPerPoint]); o controller reduz a janela visível a esse orçamento,
+/// então o custo de cada frame não depende do tamanho do histórico.
+/// Pinça ou roda do mouse aproximam, arrastar desloca e dois toques
+/// voltam à série inteira.
+class EarningsChart extends StatefulWidget {
+  final EarningsController controller;
+  final bool isLargeScreen;
+  final double pixelsPerPoint;
+
+  const EarningsChart({
+    super.key,
+    required this.controller,
+    required this.isLargeScreen,
+    this.pixelsPerPoint = 4,
+  });
+
+  @override
+  State<EarningsChart> createState() => _EarningsChartState();
+}
+
+class _EarningsChartState extends State<EarningsChart> {
+  static const Color _mainColor = Color(0xFF00C851);
+
+  DateTimeRange? _gestureBase;
+  double _gestureStartX = 0;
+  double _width = 0;
+  bool _interacting = false;
+
+  EarningsController get controller => widget.controller;
+
+  @override
+  Widget build(BuildContext context) {
+    return LayoutBuilder(
+      builder: (context, constraints) {
+        _width = constraints.maxWidth;
+        final budget = math.max(3, (constraints.maxWidth / widget.pixelsPerPoint).floor());
+
+        return Listener(
+          onPointerSignal: _onPointerSignal,
+          child: GestureDetector(
+            onScaleStart: _onScaleStart,
+            onScaleUpdate: _onScaleUpdate,
+            onScaleEnd: _onScaleEnd,
+            onDoubleTap: controller.resetChartWindow,
+            child: Obx(() {
+              RebuildProfiler.record('earnings.chart');
+              return _buildLineChart(controller.getChartData(maxPoints: budget));
+            }),
+          ),
+        );
+      },
+    );
+  }
+
+  void _onScaleStart(ScaleStartDetails details) {
+    _gestureBase = controller.visibleChartRange;
+    _gestureStartX = details.localFocalPoint.dx;
+    setState(() => _interacting = true);
+  }
+
+  void _onScaleUpdate(ScaleUpdateDetails details) {
+    final base = _gestureBase;
+    if (base == null) return;
+
+    final scale = details.pointerCount > 1 ? details.scale : 1.0;
+    _applyWindow(base, scale, _gestureStartX, details.localFocalPoint.dx - _gestureStartX);
+  }
+
+  void _onScaleEnd(ScaleEndDetails details) {
+    _gestureBase = null;
+    setState(() => _interacting = false);
+  }
+
+  void _onPointerSignal(PointerSignalEvent event) {
+    if (event is! PointerScrollEvent) return;
+
+    // Reivindica o evento para a roda não rolar a tela ao mesmo tempo
+    GestureBinding.instance.pointerSignalResolver.register(event, (event) {
+      final range = controller.visibleChartRange;
+      if (range == null) return;
+
+      final scroll = event as PointerScrollEvent;
+      final scale = scroll.scrollDelta.dy < 0 ? 1.25 : 0.8;
+      _applyWindow(range, scale, scroll.localPosition.dx, 0);
+    });
+  }
+
+  /// Aplica zoom de [scale] em torno de [focalX] e desloca por [dragX]
+  /// pixels, mantendo parado o dia sob o ponto focal
+  void _applyWindow(DateTimeRange base, double scale, double focalX, double dragX) {
+    if (_width <= 0 || scale <= 0) return;
+
+    final baseSpanMs = base.duration.inMilliseconds;
+    final spanMs = baseSpanMs / scale;
+    final focusFraction = (focalX / _width).clamp(0.0, 1.0);
+    final focusMs = base.start.millisecondsSinceEpoch + baseSpanMs * focusFraction;
+    final startMs = focusMs - spanMs * focusFraction - dragX / _width * spanMs;
+
+    controller.setChartWindow(
+      DateTime.fromMillisecondsSinceEpoch(startMs.round()),
+      DateTime.fromMillisecondsSinceEpoch((startMs + spanMs).round()),
+    );
+  }
+
+  Widget _buildLineChart(List<Map<String, dynamic>> chartData) {
+    if (chartData.isEmpty) {
+      return _buildEmptyChart();
+    }
+
+    // x em dias desde o primeiro ponto, para que os pontos reduzidos
+    // mantenham o espaçamento real entre as datas
+    final firstDay = EarningsSeries.dayNumber(chartData.first['fullDate'] as DateTime);
+    final mediumSpots = <FlSpot>[];
+    final oraculumSpots = <FlSpot>[];
+
+    for (final item in chartData) {
+      final x = (EarningsSeries.dayNumber(item['fullDate'] as DateTime) - firstDay).toDouble();
+      mediumSpots.add(FlSpot(x, item['mediumAmount'] as double));
+      oraculumSpots.add(FlSpot(x, item['oraculumAmount'] as double));
+    }
+
+    final spanDays = math.max(1.0, mediumSpots.last.x);
+    final labelCount = math.max(2, (_width / 56).floor());
+    final labelInterval = math.max(1.0, (spanDays / labelCount).ceilToDouble());
+    final labelFormat = spanDays > 365
+        ? DateFormat('MM/yy')
+        : spanDays > 31 ? DateFormat('dd/MM') : DateFormat('dd');
+
+    final maxY = _calculateMaxY(chartData);
+    final interval = maxY / 4;
+
+    // Com muitos pontos, curvas e marcadores só custam tempo de desenho
+    final showDots = chartData.length <= 31;
+    final curved = chartData.length <= 60;
+
+    return LineChart(
+      LineChartData(
+        gridData: FlGridData(
+          show: true,
+          drawVerticalLine: false,
+          horizontalInterval: interval,
+          getDrawingHorizontalLine: (value) {
+            return const FlLine(
+              color: Colors.white12,
+              strokeWidth: 1,
+            );
+          },
+        ),
+        titlesData: FlTitlesData(
+          show: true,
+          rightTitles: const AxisTitles(
+            sideTitles: SideTitles(showTitles: false),
+          ),
+          topTitles: const AxisTitles(
+            sideTitles: SideTitles(showTitles: false),
+          ),
+          bottomTitles: AxisTitles(
+            sideTitles: SideTitles(
+              showTitles: true,
+              reservedSize: 30,
+              interval: labelInterval,
+              getTitlesWidget: (double value, TitleMeta meta) {
+                return _buildBottomTitle(
+                  labelFormat.format(EarningsSeries.dateOf(firstDay + value.round())),
+                );
+              },
+            ),
+          ),
+          leftTitles: AxisTitles(
+            sideTitles: SideTitles(
+              showTitles: true,
+              interval: interval,
+              reservedSize: widget.isLargeScreen ? 50 : 40,
+              getTitlesWidget: (double value, TitleMeta meta) {
+                return _buildLeftTitle(value);
+              },
+            ),
+          ),
+        ),
+        borderData: FlBorderData(
+          show: false,
+        ),
+        minX: 0,
+        maxX: spanDays,
+        minY: 0,
+        maxY: maxY,
+        lineBarsData: [
+          LineChartBarData(
+            spots: mediumSpots,
+            isCurved: curved,
+            preventCurveOverShooting: true,
+            gradient: LinearGradient(
+              colors: [
+                _mainColor,
+                _mainColor.withOpacity(0.7),
+              ],
+            ),
+            barWidth: 3,
+            isStrokeCapRound: true,
+            dotData: FlDotData(
+              show: showDots,
+            ),
+            belowBarData: BarAreaData(
+              show: true,
+              gradient: LinearGradient(
+                begin: Alignment.topCenter,
+                end: Alignment.bottomCenter,
+                colors: [
+                  _mainColor.withOpacity(0.3),
+                  _mainColor.withOpacity(0.1),
+                ],
+              ),
+            ),
+          ),
+          LineChartBarData(
+            spots: oraculumSpots,
+            isCurved: curved,
+            preventCurveOverShooting: true,
+            color: Colors.orange,
+            barWidth: 2,
+            isStrokeCapRound: true,
+            dashArray: [5, 5],
+            dotData: FlDotData(
+              show: showDots,
+            ),
+          ),
+        ],
+        lineTouchData: LineTouchData(
+          enabled: !_interacting,
+          touchTooltipData: LineTouchTooltipData(
+            getTooltipItems: (List<LineBarSpot> touchedBarSpots) {
+              return touchedBarSpots.map((barSpot) {
+                final index = barSpot.spotIndex;
+                if (index >= 0 && index < chartData.length) {
+                  final data = chartData[index];
+                  final isMainLine = barSpot.barIndex == 0;
+                  final value = isMainLine ?
+                  data['mediumAmount']! :
+                  data['oraculumAmount']!;
+                  final label = isMainLine ?
+                  'Seus Ganhos' :
+                  'Comissão Oraculum';
+
+                  return LineTooltipItem(
+                    '$label\n${data['date']}\nR\$ ${value.toStringAsFixed(2)}',
+                    TextStyle(
+                      color: isMainLine ? _mainColor : Colors.orange,
+                      fontWeight: FontWeight.bold,
+                    ),
+                  );
+                }
+                return null;
+              }).toList();
+            },
+          ),
+          getTouchedSpotIndicator: (LineChartBarData barData, List<int> spotIndexes) {
+            return spotIndexes.map((spotIndex) {
+              final color = barData.gradient?.colors.first ??
+                  barData.color ??
+                  _mainColor;
+              return TouchedSpotIndicatorData(
+                FlLine(
+                  color: color.withOpacity(0.5),
+                  strokeWidth: 2,
+                ),
+                FlDotData(
+                  show: true,
+                  getDotPainter: (spot, percent, barData, index) {
+                    final color = barData.gradient?.colors.first ??
+                        barData.color ??
+                        _mainColor;
+                    return FlDotCirclePainter(
+                      radius: 6,
+                      color: Colors.white,
+                      strokeWidth: 2,
+                      strokeColor: color,
+                    );
+                  },
+                ),
+              );
+            }).toList();
+          },
+          handleBuiltInTouches: true,
+          touchSpotThreshold: 10,
+        ),
+      ),
+      // Sem animação entre frames de um gesto, para o gráfico seguir o dedo
+      duration: _interacting ? Duration.zero : const Duration(milliseconds: 150),
+    );
+  }
+
+  Widget _buildEmptyChart() {
+    final isLargeScreen = widget.isLargeScreen;
+
+    return Container(
+      decoration: BoxDecoration(
+        color: Colors.white.withOpacity(0.05),
+        borderRadius: BorderRadius.circular(12),
+      ),
+      child: Center(
+        child: Column(
+          mainAxisAlignment: MainAxisAlignment.center,
+          children: [
+            Icon(
+              Icons.show_chart,
+              color: Colors.white60,
+              size: isLargeScreen ? 48 : 40,
+            ),
+            SizedBox(height: 8),
+            Text(
+              'Sem dados para exibir',
+              style: TextStyle(
+                color: Colors.white60,
+                fontSize: isLargeScreen ? 16 : 14,
+              ),
+            ),
+            Text(
+              'Complete algumas consultas para ver o gráfico',
+              style: TextStyle(
+                color: Colors.white38,
+                fontSize: isLargeScreen ? 12 : 10,
+              ),
+            ),
+          ],
+        ),
+      ),
+    );
+  }
+
+  Widget _buildBottomTitle(String label) {
+    return Padding(
+      padding: const EdgeInsets.only(top: 8.0),
+      child: Text(
+        label,
+        style: const TextStyle(
+          color: Colors.white60,
+          fontSize: 10,
+        ),
+      ),
+    );
+  }
+
+  Widget _buildLeftTitle(double value) {
+    return Text(
+      'R\$ ${value.toInt()}',
+      style: const TextStyle(
+        color: Colors.white60,
+        fontSize: 10,
+      ),
+    );
+  }
+
+  double _calculateMaxY(List<Map<String, dynamic>> data) {
+    double maxValue = 0;
+    for (final item in data) {
+      final mediumAmount = item['mediumAmount'] as double;
+      if (mediumAmount > maxValue) {
+        maxValue = mediumAmount;
+      }
+    }
+    // Adicionar 20% de margem; sem ganhos, mantém uma escala mínima
+    return maxValue > 0 ? maxValue * 1.2 : 100;
+  }
+}
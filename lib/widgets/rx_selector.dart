@@ -0,0 +1,76 @@
+import 'dart:async';
+
+import 'package:flutter/material.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/utils/rebuild_profiler.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
+
+/// Reconstrói apenas quando a fatia extraída por [selector] muda,
+/// ao contrário do `Obx`, que reconstrói a cada notificação da fonte
+class RxSelector<T, S> extends StatefulWidget {
+  final RxObjectMixin<T> source;
+  final S Function(T value) selector;
+  final Widget Function(BuildContext context, S slice) builder;
+  final String? debugLabel;
+
+  const RxSelector({
+    super.key,
+    required this.source,
+    required this.selector,
+    required this.builder,
+    this.debugLabel,
+  });
+
+  @override
+  State<RxSelector<T, S>> createState() => _RxSelectorState<T, S>();
+}
+
+class _RxSelectorState<T, S> extends State<RxSelector<T, S>> {
+  late S _slice;
+  StreamSubscription? _subscription;
+
+  @override
+  void initState() {
+    super.initState();
+    _subscribe();
+  }
+
+  @override
+  void didUpdateWidget(covariant RxSelector<T, S> oldWidget) {
+    super.didUpdateWidget(oldWidget);
+    if (!identical(oldWidget.source, widget.source)) {
+      _subscription?.cancel();
+      _subscribe();
+    } else {
+      _slice = widget.selector(widget.source.value);
+    }
+  }
+
+  void _subscribe() {
+    _slice = widget.selector(widget.source.value);
+    _subscription = widget.source.listen((_) => _onSourceChanged());
+  }
+
+  void _onSourceChanged() {
+    if (!mounted) return;
+
+    final next = widget.selector(widget.source.value);
+    if (RxBatch.isSame(next, _slice)) return;
+
+    setState(() => _slice = next);
+  }
+
+  @override
+  void dispose() {
+    _subscription?.cancel();
+    super.dispose();
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    if (widget.debugLabel != null) {
+      RebuildProfiler.record(widget.debugLabel!);
+    }
+    return widget.builder(context, _slice);
+  }
+}
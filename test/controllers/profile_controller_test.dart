@@ -0,0 +1,90 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/controllers/profile_controller.dart';
+import 'package:oraculum_medium/models/medium_model.dart';
+
+void main() {
+  final base = MediumModel.fromMap({
+    'name': 'Madame Lua',
+    'email': 'lua@oraculum.app',
+    'phone': '(11) 98888-7777',
+    'bio': 'Tarot e astrologia',
+    'experience': '10 anos',
+    'specialties': ['Tarot', 'Astrologia'],
+    'pricePerMinute': 3.5,
+    'updatedAt': DateTime(2026, 3, 1).toIso8601String(),
+  }, 'medium');
+
+  group('diffProfile', () {
+    test('formulário igual ao perfil não gera patch', () {
+      final patch = ProfileController.diffProfile(
+        base,
+        name: 'Madame Lua',
+        email: 'lua@oraculum.app',
+        phone: '(11) 98888-7777',
+        bio: 'Tarot e astrologia',
+        experience: '10 anos',
+        specialties: ['Tarot', 'Astrologia'],
+        pricePerMinute: 3.5,
+      );
+
+      expect(patch, isEmpty);
+    });
+
+    test('campos ausentes (null) não entram no patch', () {
+      expect(ProfileController.diffProfile(base), isEmpty);
+    });
+
+    test('só os campos alterados entram no patch', () {
+      final patch = ProfileController.diffProfile(
+        base,
+        name: 'Madame Lua',
+        phone: '(21) 97777-6666',
+        pricePerMinute: 4,
+      );
+
+      expect(patch, {'phone': '(21) 97777-6666', 'pricePerMinute': 4.0});
+    });
+
+    test('telefone vazio limpa o número', () {
+      final patch = ProfileController.diffProfile(base, phone: '');
+
+      expect(patch, {'phone': ''});
+    });
+
+    test('telefone vazio em perfil sem telefone não gera patch', () {
+      final withoutPhone = base.copyWith(phone: '');
+
+      expect(ProfileController.diffProfile(withoutPhone, phone: ''), isEmpty);
+    });
+
+    test('experiência vazia limpa o campo', () {
+      expect(ProfileController.diffProfile(base, experience: ''), {'experience': ''});
+    });
+
+    test('nome e email vazios são ignorados', () {
+      expect(ProfileController.diffProfile(base, name: '', email: ''), isEmpty);
+    });
+
+    test('bio alterada também grava os campos de compatibilidade', () {
+      final patch = ProfileController.diffProfile(base, bio: 'Runas');
+
+      expect(patch, {'bio': 'Runas', 'biography': 'Runas', 'description': 'Runas'});
+    });
+
+    test('especialidades comparam o conteúdo e a ordem', () {
+      expect(ProfileController.diffProfile(base, specialties: ['Tarot', 'Astrologia']), isEmpty);
+      expect(
+        ProfileController.diffProfile(base, specialties: ['Astrologia', 'Tarot']),
+        {'specialties': ['Astrologia', 'Tarot']},
+      );
+    });
+  });
+
+  test('versões do perfil com updatedAt diferente não são iguais', () {
+    final edited = base.copyWith(phone: '', updatedAt: DateTime(2026, 3, 2));
+
+    expect(edited == base, isFalse);
+    expect(edited.hashCode, base.hashCode);
+    expect(base.copyWith(phone: '') == base, isTrue);
+  });
+}
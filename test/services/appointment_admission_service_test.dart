@@ -0,0 +1,337 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/models/appointment_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
+import 'package:oraculum_medium/utils/day_occupancy.dart';
+
+/// Documentos em memória com controle otimista de concorrência, como nas
+/// transações do Firestore: cada documento tem uma versão, as escritas só
+/// são aplicadas no commit e a transação é repetida se algum documento lido
+/// mudou. Toda leitura cede a vez, então transações simultâneas se
+/// intercalam.
+class _MemoryAdmissionStore implements AdmissionStore {
+  final Map<String, Map<String, dynamic>> _docs = {};
+  final Map<String, int> _versions = {};
+
+  int commits = 0;
+  int conflicts = 0;
+  int confirmedQueries = 0;
+
+  static String _path(String collection, String id) => '$collection/$id';
+
+  Map<String, dynamic>? doc(String collection, String id) => _docs[_path(collection, id)];
+
+  void put(String collection, String id, Map<String, dynamic> data) {
+    final path = _path(collection, id);
+    _docs[path] = Map.of(data);
+    _versions[path] = (_versions[path] ?? 0) + 1;
+  }
+
+  @override
+  Future<T> runTransaction<T>(Future<T> Function(AdmissionTransaction transaction) body) async {
+    while (true) {
+      final transaction = _MemoryTransaction(this);
+      final result = await body(transaction);
+
+      final stale = transaction._readVersions.entries.any((read) => (_versions[read.key] ?? 0) != read.value);
+      if (!stale) {
+        transaction._commit();
+        commits++;
+        return result;
+      }
+      conflicts++;
+    }
+  }
+
+  @override
+  Future<Map<String, dynamic>?> read(String collection, String id) async {
+    await Future<void>.delayed(Duration.zero);
+    final data = doc(collection, id);
+    return data == null ? null : Map.of(data);
+  }
+
+  @override
+  Future<List<AppointmentModel>> confirmedAppointmentsOn(String mediumId, DateTime date) async {
+    confirmedQueries++;
+    await Future<void>.delayed(Duration.zero);
+
+    final prefix = '${AppointmentAdmissionService.appointmentsCollection}/';
+    return [
+      for (final entry in _docs.entries)
+        if (entry.key.startsWith(prefix))
+          AppointmentModel.fromMap(entry.value, entry.key.substring(prefix.length)),
+    ].where((appointment) {
+      final scheduled = appointment.scheduledDate;
+      return appointment.mediumId == mediumId &&
+          appointment.isConfirmed &&
+          scheduled.year == date.year &&
+          scheduled.month == date.month &&
+          scheduled.day == date.day;
+    }).toList();
+  }
+}
+
+class _MemoryTransaction implements AdmissionTransaction {
+  final _MemoryAdmissionStore _store;
+  final Map<String, int> _readVersions = {};
+  final List<(String, Map<String, dynamic>, bool)> _writes = [];
+
+  _MemoryTransaction(this._store);
+
+  @override
+  Future<Map<String, dynamic>?> get(String collection, String id) async {
+    if (_writes.isNotEmpty) throw StateError('Leitura depois de escrita na transação');
+
+    await Future<void>.delayed(Duration.zero);
+
+    final path = _MemoryAdmissionStore._path(collection, id);
+    _readVersions[path] = _store._versions[path] ?? 0;
+    final data = _store._docs[path];
+    return data == null ? null : Map.of(data);
+  }
+
+  @override
+  void set(String collection, String id, Map<String, dynamic> data) {
+    _writes.add((_MemoryAdmissionStore._path(collection, id), data, false));
+  }
+
+  @override
+  void update(String collection, String id, Map<String, dynamic> data) {
+    _writes.add((_MemoryAdmissionStore._path(collection, id), data, true));
+  }
+
+  void _commit() {
+    for (final (path, data, merge) in _writes) {
+      final current = _store._docs[path];
+      if (merge && current == null) throw StateError('Documento inexistente: $path');
+
+      _store._docs[path] = merge ? {...current!, ...data} : Map.of(data);
+      _store._versions[path] = (_store._versions[path] ?? 0) + 1;
+    }
+  }
+}
+
+void main() {
+  const mediumId = 'medium';
+  final day = DateTime(2026, 3, 10);
+  final dayId = DayOccupancy.documentId(mediumId, day);
+
+  late _MemoryAdmissionStore store;
+  late AppointmentAdmissionService service;
+
+  void addAppointment(String id, DateTime at, {String status = 'pending', int duration = 30}) {
+    store.put(
+      AppointmentAdmissionService.appointmentsCollection,
+      id,
+      AppointmentModel(
+        id: id,
+        clientId: 'client_$id',
+        mediumId: mediumId,
+        mediumName: 'Médium',
+        clientName: 'Cliente $id',
+        scheduledDate: at,
+        duration: duration,
+        amount: 50,
+        status: status,
+        createdAt: at.subtract(const Duration(days: 2)),
+      ).toMap(),
+    );
+  }
+
+  String? statusOf(String id) =>
+      store.doc(AppointmentAdmissionService.appointmentsCollection, id)?['status'] as String?;
+
+  DayOccupancy occupancyDoc() =>
+      DayOccupancy.fromMap(store.doc(AppointmentAdmissionService.occupancyCollection, dayId));
+
+  setUp(() {
+    store = _MemoryAdmissionStore();
+    service = AppointmentAdmissionService(store: store);
+    store.put(AppointmentAdmissionService.settingsCollection, mediumId, {
+      'autoAcceptAppointments': true,
+      'bufferTime': 15,
+      'maxDailyAppointments': 10,
+    });
+  });
+
+  group('admissões concorrentes', () {
+    test('horários sobrepostos: só uma é aceita', () async {
+      store.put(AppointmentAdmissionService.occupancyCollection, dayId, DayOccupancy.empty().toMap());
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      addAppointment('b', DateTime(2026, 3, 10, 10, 15));
+
+      final results = await Future.wait([service.admit('a'), service.admit('b')]);
+
+      expect(results.where((result) => result.decision == AdmissionDecision.accepted), hasLength(1));
+      expect(results.where((result) => result.decision == AdmissionDecision.rejected), hasLength(1));
+      expect(store.conflicts, greaterThan(0));
+      expect(occupancyDoc().count, 1);
+      expect([statusOf('a'), statusOf('b')]..sort(), ['confirmed', 'pending']);
+    });
+
+    test('horários livres: as duas são aceitas e a perdedora vê a vencedora', () async {
+      store.put(AppointmentAdmissionService.occupancyCollection, dayId, DayOccupancy.empty().toMap());
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      addAppointment('b', DateTime(2026, 3, 10, 14));
+
+      final results = await Future.wait([service.admit('a'), service.admit('b')]);
+
+      expect(results.map((result) => result.decision), everyElement(AdmissionDecision.accepted));
+      expect(store.conflicts, greaterThan(0));
+      expect(occupancyDoc().count, 2);
+      expect(occupancyDoc().contains('a') && occupancyDoc().contains('b'), isTrue);
+    });
+
+    test('limite diário vale entre reservas simultâneas', () async {
+      store.put(AppointmentAdmissionService.settingsCollection, mediumId, {'maxDailyAppointments': 1});
+      store.put(AppointmentAdmissionService.occupancyCollection, dayId, DayOccupancy.empty().toMap());
+      addAppointment('a', DateTime(2026, 3, 10, 9));
+      addAppointment('b', DateTime(2026, 3, 10, 15));
+      addAppointment('c', DateTime(2026, 3, 10, 19));
+
+      final results = await Future.wait([service.admit('a'), service.admit('b'), service.admit('c')]);
+
+      expect(results.where((result) => result.isAccepted), hasLength(1));
+      expect(occupancyDoc().count, 1);
+    });
+
+    test('aceite automático grava a recusa na consulta perdedora', () async {
+      store.put(AppointmentAdmissionService.occupancyCollection, dayId, DayOccupancy.empty().toMap());
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      addAppointment('b', DateTime(2026, 3, 10, 10));
+
+      await Future.wait([service.admit('a', automatic: true), service.admit('b', automatic: true)]);
+
+      expect([statusOf('a'), statusOf('b')]..sort(), ['confirmed', 'rejected']);
+    });
+  });
+
+  group('dia sem documento de ocupação', () {
+    test('é semeado com as consultas confirmadas antes da admissão', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 10), status: 'confirmed');
+      addAppointment('other_day', DateTime(2026, 3, 11, 10), status: 'confirmed');
+      addAppointment('a', DateTime(2026, 3, 10, 10, 15));
+
+      final result = await service.admit('a');
+
+      expect(result.decision, AdmissionDecision.rejected);
+      expect(service.seededDays, 1);
+      expect(occupancyDoc().contains('legacy'), isTrue);
+      expect(occupancyDoc().contains('other_day'), isFalse);
+      expect(statusOf('a'), 'pending');
+    });
+
+    test('a semente é gravada uma única vez', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 10), status: 'confirmed');
+      addAppointment('a', DateTime(2026, 3, 10, 13));
+      addAppointment('b', DateTime(2026, 3, 10, 16));
+
+      expect((await service.admit('a')).decision, AdmissionDecision.accepted);
+      expect((await service.admit('b')).decision, AdmissionDecision.accepted);
+
+      expect(store.confirmedQueries, 1);
+      expect(occupancyDoc().count, 3);
+    });
+
+    test('admissões simultâneas em um dia sem documento', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 8), status: 'confirmed');
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      addAppointment('b', DateTime(2026, 3, 10, 10, 15));
+      addAppointment('c', DateTime(2026, 3, 10, 8, 15));
+
+      final results = await Future.wait([service.admit('a'), service.admit('b'), service.admit('c')]);
+
+      expect(results[2].decision, AdmissionDecision.rejected);
+      expect(results.where((result) => result.decision == AdmissionDecision.accepted), hasLength(1));
+      expect(occupancyDoc().count, 2);
+      expect(occupancyDoc().contains('legacy'), isTrue);
+    });
+
+    test('consulta já confirmada entra pela semente como já aceita', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 10), status: 'confirmed');
+
+      final result = await service.admit('legacy');
+
+      expect(result.decision, AdmissionDecision.alreadyAccepted);
+      expect(occupancyDoc().contains('legacy'), isTrue);
+    });
+
+    test('getDayOccupancy semeia e grava o documento', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 10), status: 'confirmed');
+
+      final occupancy = await service.getDayOccupancy(mediumId, day);
+      expect(occupancy.contains('legacy'), isTrue);
+      expect(occupancyDoc().contains('legacy'), isTrue);
+
+      await service.getDayOccupancy(mediumId, day);
+      expect(store.confirmedQueries, 1);
+    });
+
+    test('cancelar uma consulta da semente libera o horário', () async {
+      addAppointment('legacy', DateTime(2026, 3, 10, 10), status: 'confirmed');
+      await service.getDayOccupancy(mediumId, day);
+
+      expect(await service.release('legacy', 'canceled'), isTrue);
+
+      expect(occupancyDoc().count, 0);
+      expect(statusOf('legacy'), 'canceled');
+      expect(service.releasedCount, 1);
+    });
+  });
+
+  group('release só parte de consultas em aberto', () {
+    setUp(() {
+      store.put(AppointmentAdmissionService.occupancyCollection, dayId, DayOccupancy.empty().toMap());
+    });
+
+    test('cancelar e depois expirar: a segunda mudança é ignorada', () async {
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      await service.admit('a');
+
+      expect(await service.release('a', 'cancelled', reason: 'cliente desistiu'), isTrue);
+      expect(await service.release('a', 'expired'), isFalse);
+
+      expect(statusOf('a'), 'cancelled');
+      expect(occupancyDoc().count, 0);
+      expect(service.releasedCount, 1);
+    });
+
+    test('consulta concluída não é cancelada nem libera o horário', () async {
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+      await service.admit('a');
+      store.put(AppointmentAdmissionService.appointmentsCollection, 'a', {
+        ...store.doc(AppointmentAdmissionService.appointmentsCollection, 'a')!,
+        'status': 'completed',
+      });
+
+      expect(await service.release('a', 'cancelled'), isFalse);
+
+      expect(statusOf('a'), 'completed');
+      expect(occupancyDoc().contains('a'), isTrue);
+      expect(service.releasedCount, 0);
+    });
+
+    test('transition respeita o conjunto de origem', () async {
+      addAppointment('p', DateTime(2026, 3, 10, 10));
+
+      expect(await service.transition('p', 'no_show', from: {'confirmed'}), StatusTransition.skipped);
+      expect(statusOf('p'), 'pending');
+
+      expect(await service.transition('p', 'expired', from: {'pending'}), StatusTransition.applied);
+      expect(statusOf('p'), 'expired');
+    });
+
+    test('consulta inexistente é ignorada', () async {
+      expect(await service.transition('x', 'expired', from: {'pending'}), StatusTransition.skipped);
+      expect(await service.release('x', 'cancelled'), isFalse);
+    });
+
+    test('cancelamento e confirmação simultâneos terminam em um status coerente', () async {
+      addAppointment('a', DateTime(2026, 3, 10, 10));
+
+      await Future.wait([service.admit('a'), service.release('a', 'cancelled')]);
+
+      final occupied = occupancyDoc().contains('a');
+      expect(statusOf('a'), occupied ? 'confirmed' : 'cancelled');
+    });
+  });
+}
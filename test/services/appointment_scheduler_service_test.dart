@@ -0,0 +1,288 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/models/appointment_model.dart';
+import 'package:oraculum_medium/services/appointment_admission_service.dart';
+import 'package:oraculum_medium/services/appointment_scheduler_service.dart';
+import 'package:oraculum_medium/utils/scheduler_clock.dart';
+
+/// Registra as ações disparadas pelo agendador em vez de gravar no Firestore
+class _RecordingActions implements AppointmentTimerActions {
+  final List<(String, DateTime)> reminders = [];
+  final List<(String, String, DateTime)> statusUpdates = [];
+  final List<String> admissions = [];
+
+  final FakeSchedulerClock clock;
+
+  /// Quantas das próximas chamadas devem falhar
+  int failuresLeft = 0;
+
+  /// Status atual das consultas no "servidor", conferido pelas transições;
+  /// consultas ausentes aceitam qualquer transição
+  final Map<String, String> serverStatus = {};
+
+  _RecordingActions(this.clock);
+
+  bool _succeeds() {
+    if (failuresLeft == 0) return true;
+    failuresLeft--;
+    return false;
+  }
+
+  @override
+  Future<bool> sendReminder(String mediumId, AppointmentModel appointment) async {
+    reminders.add((appointment.id, clock.now()));
+    return _succeeds();
+  }
+
+  @override
+  Future<StatusTransition> transition(String appointmentId, Set<String> from, String status) async {
+    final current = serverStatus[appointmentId];
+    if (current != null && !from.contains(current)) return StatusTransition.skipped;
+
+    statusUpdates.add((appointmentId, status, clock.now()));
+    if (!_succeeds()) return StatusTransition.failed;
+
+    serverStatus[appointmentId] = status;
+    return StatusTransition.applied;
+  }
+
+  @override
+  Future<AdmissionResult> admit(String appointmentId) async {
+    admissions.add(appointmentId);
+    return const AdmissionResult(AdmissionDecision.accepted);
+  }
+}
+
+void main() {
+  final start = DateTime(2026, 3, 10, 9);
+  final appointmentTime = DateTime(2026, 3, 10, 10);
+
+  late FakeSchedulerClock clock;
+  late _RecordingActions actions;
+  late AppointmentSchedulerService scheduler;
+
+  AppointmentModel appointment(String id, String status, {DateTime? at, int duration = 30}) {
+    return AppointmentModel(
+      id: id,
+      clientId: 'client',
+      mediumId: 'medium',
+      mediumName: 'Médium',
+      clientName: 'Cliente',
+      scheduledDate: at ?? appointmentTime,
+      duration: duration,
+      amount: 50,
+      status: status,
+      createdAt: start,
+    );
+  }
+
+  /// Avança o relógio simulado e deixa as ações assíncronas concluírem
+  Future<void> advance(Duration duration) async {
+    clock.advance(duration);
+    await Future<void>.delayed(Duration.zero);
+  }
+
+  Future<void> advanceTo(DateTime time) => advance(time.difference(clock.now()));
+
+  setUp(() {
+    clock = FakeSchedulerClock(start);
+    actions = _RecordingActions(clock);
+    scheduler = AppointmentSchedulerService(clock: clock, actions: actions)..attach('medium');
+  });
+
+  tearDown(() {
+    scheduler.stop();
+    expect(clock.activeTimers, 0);
+  });
+
+  group('lembrete', () {
+    test('dispara reminderLead antes do horário, uma única vez', () async {
+      scheduler.updateAppointment(appointment('a1', 'confirmed'));
+
+      await advanceTo(appointmentTime.subtract(AppointmentSchedulerService.reminderLead) -
+          AppointmentSchedulerService.tickInterval);
+      expect(actions.reminders, isEmpty);
+
+      await advance(AppointmentSchedulerService.tickInterval);
+      expect(actions.reminders, [('a1', DateTime(2026, 3, 10, 9, 45))]);
+      expect(scheduler.remindersSent, 1);
+
+      // Uma nova versão da consulta não reenvia o lembrete
+      scheduler.updateAppointment(appointment('a1', 'confirmed'));
+      await advanceTo(appointmentTime);
+      expect(actions.reminders, hasLength(1));
+    });
+
+    test('não é enviado se a consulta já registra reminderSentAt', () async {
+      scheduler.updateAppointment(appointment('a1', 'confirmed'), reminderSent: true);
+
+      await advanceTo(appointmentTime);
+      expect(actions.reminders, isEmpty);
+    });
+
+    test('desativar appointmentReminders cancela e reativar reagenda', () async {
+      scheduler.updateAppointment(appointment('a1', 'confirmed'));
+      scheduler.applySettings({
+        'notifications': {'appointmentReminders': false},
+      });
+
+      await advanceTo(DateTime(2026, 3, 10, 9, 50));
+      expect(actions.reminders, isEmpty);
+
+      scheduler.applySettings({});
+      await advance(AppointmentSchedulerService.tickInterval);
+      expect(actions.reminders.map((reminder) => reminder.$1), ['a1']);
+    });
+
+    test('falha é repetida após retryDelay', () async {
+      actions.failuresLeft = 1;
+      scheduler.updateAppointment(appointment('a1', 'pending'));
+
+      await advanceTo(DateTime(2026, 3, 10, 9, 45));
+      expect(actions.reminders, hasLength(1));
+      expect(scheduler.failedActions, 1);
+      expect(scheduler.remindersSent, 0);
+
+      await advance(AppointmentSchedulerService.retryDelay);
+      expect(actions.reminders.map((reminder) => reminder.$2),
+          [DateTime(2026, 3, 10, 9, 45), DateTime(2026, 3, 10, 9, 46)]);
+      expect(scheduler.remindersSent, 1);
+    });
+  });
+
+  group('expiração', () {
+    test('consulta pendente expira pendingExpiryGrace após o horário', () async {
+      scheduler.updateAppointment(appointment('p1', 'pending'));
+
+      await advanceTo(DateTime(2026, 3, 10, 10, 14, 45));
+      expect(actions.statusUpdates, isEmpty);
+
+      await advance(AppointmentSchedulerService.tickInterval);
+      expect(actions.statusUpdates, [
+        ('p1', AppointmentSchedulerService.expiredStatus, DateTime(2026, 3, 10, 10, 15)),
+      ]);
+      expect(scheduler.expiredAppointments, 1);
+    });
+
+    test('confirmar a consulta cancela a expiração', () async {
+      scheduler.updateAppointment(appointment('p1', 'pending'));
+      await advanceTo(DateTime(2026, 3, 10, 10, 5));
+
+      scheduler.updateAppointment(appointment('p1', 'confirmed'));
+      await advanceTo(DateTime(2026, 3, 10, 11));
+
+      expect(actions.statusUpdates, isEmpty);
+      expect(scheduler.rescheduledAppointments, 1);
+    });
+
+    test('consulta confirmada no servidor antes do snapshot não expira', () async {
+      scheduler.updateAppointment(appointment('p1', 'pending'), reminderSent: true);
+      actions.serverStatus['p1'] = 'confirmed';
+
+      await advanceTo(DateTime(2026, 3, 10, 10, 15));
+      await advance(AppointmentSchedulerService.retryDelay);
+
+      expect(actions.statusUpdates, isEmpty);
+      expect(actions.serverStatus['p1'], 'confirmed');
+      expect(scheduler.expiredAppointments, 0);
+      expect(scheduler.failedActions, 0);
+    });
+
+    test('consulta removida do stream não dispara nada', () async {
+      scheduler.updateAppointment(appointment('p1', 'pending'));
+      scheduler.removeAppointment('p1');
+
+      await advanceTo(DateTime(2026, 3, 10, 15));
+
+      expect(actions.reminders, isEmpty);
+      expect(actions.statusUpdates, isEmpty);
+      expect(scheduler.pendingTimers, 0);
+    });
+
+    test('falha é repetida enquanto a consulta continuar em aberto', () async {
+      actions.failuresLeft = 2;
+      scheduler.updateAppointment(appointment('p1', 'pending', at: DateTime(2026, 3, 10, 9, 10)),
+          reminderSent: true);
+
+      await advanceTo(DateTime(2026, 3, 10, 9, 25));
+      await advance(AppointmentSchedulerService.retryDelay);
+      await advance(AppointmentSchedulerService.retryDelay);
+
+      expect(actions.statusUpdates.map((update) => update.$3), [
+        DateTime(2026, 3, 10, 9, 25),
+        DateTime(2026, 3, 10, 9, 26),
+        DateTime(2026, 3, 10, 9, 27),
+      ]);
+      expect(scheduler.failedActions, 2);
+      expect(scheduler.expiredAppointments, 1);
+
+      await advance(const Duration(hours: 1));
+      expect(actions.statusUpdates, hasLength(3));
+    });
+  });
+
+  group('não comparecimento', () {
+    test('consulta confirmada vira no_show noShowGrace após o término', () async {
+      scheduler.updateAppointment(appointment('c1', 'confirmed', duration: 45));
+
+      // Término às 10:45, mais 2 horas
+      await advanceTo(DateTime(2026, 3, 10, 12, 44, 45));
+      expect(actions.statusUpdates, isEmpty);
+
+      await advance(AppointmentSchedulerService.tickInterval);
+      expect(actions.statusUpdates, [
+        ('c1', AppointmentSchedulerService.noShowStatus, DateTime(2026, 3, 10, 12, 45)),
+      ]);
+      expect(scheduler.noShowAppointments, 1);
+      expect(actions.reminders.map((reminder) => reminder.$1), ['c1']);
+    });
+
+    test('consulta concluída no servidor não vira no_show', () async {
+      scheduler.updateAppointment(appointment('c1', 'confirmed'), reminderSent: true);
+      actions.serverStatus['c1'] = 'completed';
+
+      await advanceTo(DateTime(2026, 3, 10, 13));
+
+      expect(actions.statusUpdates, isEmpty);
+      expect(actions.serverStatus['c1'], 'completed');
+      expect(scheduler.noShowAppointments, 0);
+    });
+
+    test('consulta a dias de distância passa pelos níveis da roda', () async {
+      final later = DateTime(2026, 3, 14, 18);
+      scheduler.updateAppointment(appointment('c1', 'confirmed', at: later, duration: 60));
+
+      await advanceTo(DateTime(2026, 3, 14, 20, 59));
+      expect(actions.statusUpdates, isEmpty);
+      expect(actions.reminders.map((reminder) => reminder.$2), [DateTime(2026, 3, 14, 17, 45)]);
+
+      await advanceTo(DateTime(2026, 3, 14, 21, 0));
+      expect(actions.statusUpdates.map((update) => update.$3), [DateTime(2026, 3, 14, 21)]);
+    });
+  });
+
+  test('aceite automático admite cada consulta pendente uma vez', () async {
+    scheduler.updateAppointment(appointment('p1', 'pending'));
+    scheduler.updateAppointment(appointment('c1', 'confirmed'));
+    expect(actions.admissions, isEmpty);
+
+    scheduler.applySettings({'autoAcceptAppointments': true});
+    scheduler.updateAppointment(appointment('p2', 'pending'));
+    scheduler.updateAppointment(appointment('p1', 'pending'));
+    await advance(Duration.zero);
+
+    expect(actions.admissions, ['p1', 'p2']);
+  });
+
+  test('stop descarta os temporizadores e para o relógio', () async {
+    scheduler.updateAppointment(appointment('p1', 'pending'));
+    expect(clock.activeTimers, 1);
+
+    scheduler.stop();
+    await advanceTo(DateTime(2026, 3, 10, 15));
+
+    expect(scheduler.isRunning, isFalse);
+    expect(scheduler.pendingTimers, 0);
+    expect(actions.reminders, isEmpty);
+    expect(actions.statusUpdates, isEmpty);
+  });
+}
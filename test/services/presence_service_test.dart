@@ -0,0 +1,75 @@
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/services/presence_service.dart';
+
+void main() {
+  final now = DateTime(2026, 3, 10, 12);
+  const ttl = PresenceService.presenceTtl;
+
+  Map<String, dynamic> presence(String status, DateTime? heartbeat) => {
+    'status': status,
+    'isOnline': status != 'offline',
+    if (heartbeat != null) 'lastHeartbeat': Timestamp.fromDate(heartbeat),
+  };
+
+  group('isStale', () {
+    test('heartbeat com exatamente o TTL ainda vale', () {
+      expect(PresenceService.isStale(now.subtract(ttl), now: now), isFalse);
+    });
+
+    test('um milissegundo além do TTL expira', () {
+      expect(PresenceService.isStale(now.subtract(ttl + const Duration(milliseconds: 1)), now: now), isTrue);
+    });
+
+    test('heartbeat recente ou no futuro (relógio adiantado) vale', () {
+      expect(PresenceService.isStale(now.subtract(const Duration(seconds: 30)), now: now), isFalse);
+      expect(PresenceService.isStale(now.add(const Duration(seconds: 30)), now: now), isFalse);
+    });
+
+    test('sem heartbeat é sempre expirado', () {
+      expect(PresenceService.isStale(null, now: now), isTrue);
+    });
+  });
+
+  group('effectiveStatus', () {
+    test('mantém o status enquanto o heartbeat está no TTL', () {
+      expect(PresenceService.effectiveStatus(presence('online', now.subtract(ttl)), now: now), 'online');
+      expect(PresenceService.effectiveStatus(presence('busy', now), now: now), 'busy');
+    });
+
+    test('heartbeat expirado vira offline', () {
+      final data = presence('online', now.subtract(ttl + const Duration(seconds: 1)));
+      expect(PresenceService.effectiveStatus(data, now: now), 'offline');
+    });
+
+    test('sem heartbeat ou com heartbeat ainda não resolvido é offline', () {
+      expect(PresenceService.effectiveStatus(presence('online', null), now: now), 'offline');
+      expect(PresenceService.effectiveStatus({'status': 'online', 'lastHeartbeat': null}, now: now), 'offline');
+    });
+
+    test('status offline explícito vence um heartbeat recente', () {
+      expect(PresenceService.effectiveStatus(presence('offline', now), now: now), 'offline');
+    });
+
+    test('documento inexistente ou sem status é offline', () {
+      expect(PresenceService.effectiveStatus(null, now: now), 'offline');
+      expect(PresenceService.effectiveStatus({'lastHeartbeat': Timestamp.fromDate(now)}, now: now), 'offline');
+    });
+  });
+
+  group('isPresenceOutdated', () {
+    test('documento igual ao status local está em dia', () {
+      expect(PresenceService.isPresenceOutdated(presence('online', now), 'online'), isFalse);
+    });
+
+    test('documento marcado offline por fora precisa ser restaurado', () {
+      expect(PresenceService.isPresenceOutdated(presence('offline', now), 'online'), isTrue);
+      expect(PresenceService.isPresenceOutdated({'status': 'online', 'isOnline': false}, 'online'), isTrue);
+    });
+
+    test('status diferente ou documento inexistente precisa ser restaurado', () {
+      expect(PresenceService.isPresenceOutdated(presence('online', now), 'busy'), isTrue);
+      expect(PresenceService.isPresenceOutdated(null, 'online'), isTrue);
+    });
+  });
+}
@@ -0,0 +1,234 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/services/settings_sync_engine.dart';
+
+/// Registra os patches em vez de gravar no Firestore
+class _RecordingWriter implements SettingsWriter {
+  final List<Map<String, dynamic>> patches = [];
+
+  /// Quantas das próximas escritas devem falhar
+  int failuresLeft = 0;
+
+  @override
+  Future<void> write(Map<String, dynamic> patch) async {
+    patches.add(Map.of(patch));
+    if (failuresLeft > 0) {
+      failuresLeft--;
+      throw StateError('escrita recusada');
+    }
+  }
+}
+
+void main() {
+  const debounce = Duration(milliseconds: 800);
+
+  late _RecordingWriter writer;
+  late SettingsSyncEngine engine;
+
+  late RxBool autoAccept;
+  late RxInt maxDaily;
+  late RxBool reminders;
+  late Rx<Map<String, bool>> channels;
+
+  final confirmed = {
+    'autoAcceptAppointments': false,
+    'maxDailyAppointments': 8,
+    'notifications': {'appointmentReminders': true},
+    'channels': {'email': true, 'push': false},
+    'updatedAt': 'ignorado',
+  };
+
+  setUp(() {
+    writer = _RecordingWriter();
+    engine = SettingsSyncEngine(debugLabel: 'teste', writer: writer, debounce: debounce);
+
+    autoAccept = false.obs;
+    maxDaily = 8.obs;
+    reminders = true.obs;
+    channels = Rx<Map<String, bool>>({'email': true, 'push': false});
+
+    engine
+      ..bind('autoAcceptAppointments', autoAccept)
+      ..bind('maxDailyAppointments', maxDaily, validate: (int count) => count >= 1 && count <= 20)
+      ..bind('notifications.appointmentReminders', reminders)
+      ..bind('channels', channels, decode: (value) => Map<String, bool>.from(value))
+      ..seed(confirmed);
+  });
+
+  group('debounce', () {
+    testWidgets('alterações na mesma janela viram um único patch', (tester) async {
+      autoAccept.value = true;
+      await tester.pump(const Duration(milliseconds: 300));
+      maxDaily.value = 12;
+      reminders.value = false;
+      maxDaily.value = 15;
+
+      await tester.pump(debounce - const Duration(milliseconds: 1));
+      expect(writer.patches, isEmpty);
+
+      await tester.pump(const Duration(milliseconds: 1));
+      expect(writer.patches, [
+        {
+          'autoAcceptAppointments': true,
+          'maxDailyAppointments': 15,
+          'notifications.appointmentReminders': false,
+        },
+      ]);
+      expect(engine.isDirty, isFalse);
+      expect(engine.coalescedChanges, 1);
+    });
+
+    testWidgets('campo que volta ao valor confirmado não é enviado', (tester) async {
+      autoAccept.value = true;
+      maxDaily.value = 10;
+      autoAccept.value = false;
+
+      await tester.pump(debounce);
+
+      expect(writer.patches, [
+        {'maxDailyAppointments': 10},
+      ]);
+    });
+
+    testWidgets('mapa vinculado envia só as chaves alteradas', (tester) async {
+      channels.value = {'email': true, 'push': true};
+
+      await tester.pump(debounce);
+
+      expect(writer.patches, [
+        {'channels.push': true},
+      ]);
+    });
+  });
+
+  group('falha na escrita', () {
+    testWidgets('variáveis voltam ao último valor confirmado', (tester) async {
+      writer.failuresLeft = 1;
+      autoAccept.value = true;
+      channels.value = {'email': false, 'push': false};
+
+      await tester.pump(debounce);
+
+      expect(writer.patches, hasLength(1));
+      expect(engine.failedWrites, 1);
+      expect(autoAccept.value, isFalse);
+      expect(channels.value, {'email': true, 'push': false});
+      expect(engine.isDirty, isFalse);
+
+      // O rollback não é rastreado como nova alteração
+      await tester.pump(debounce);
+      expect(writer.patches, hasLength(1));
+    });
+
+    testWidgets('campo alterado de novo durante a escrita não é revertido', (tester) async {
+      writer.failuresLeft = 1;
+      autoAccept.value = true;
+
+      final flush = engine.flush();
+      maxDaily.value = 3;
+
+      expect(await flush, isFalse);
+      expect(autoAccept.value, isFalse);
+      expect(maxDaily.value, 3);
+      expect(engine.dirtyFields, {'maxDailyAppointments'});
+
+      await tester.pump(debounce);
+      expect(writer.patches.last, {'maxDailyAppointments': 3});
+    });
+  });
+
+  group('campos retidos', () {
+    testWidgets('valor inválido não é enviado e fica pendente', (tester) async {
+      maxDaily.value = 50;
+
+      expect(await engine.flush(), isFalse);
+
+      expect(writer.patches, isEmpty);
+      expect(engine.heldFields, {'maxDailyAppointments'});
+    });
+
+    testWidgets('applyRemote não sobrescreve um campo retido', (tester) async {
+      maxDaily.value = 50;
+      autoAccept.value = true;
+
+      engine.applyRemote({...confirmed, 'maxDailyAppointments': 9, 'autoAcceptAppointments': false}, () {
+        maxDaily.value = 9;
+        autoAccept.value = false;
+      });
+
+      expect(maxDaily.value, 50);
+      expect(autoAccept.value, isTrue);
+      expect(engine.heldFields, {'maxDailyAppointments'});
+      expect(engine.dirtyFields, {'maxDailyAppointments', 'autoAcceptAppointments'});
+
+      await tester.pump(debounce);
+      expect(writer.patches, [
+        {'autoAcceptAppointments': true},
+      ]);
+    });
+
+    testWidgets('applyRemote descarta a alteração que o servidor já confirma', (tester) async {
+      autoAccept.value = true;
+
+      engine.applyRemote({...confirmed, 'autoAcceptAppointments': true}, () {
+        autoAccept.value = true;
+      });
+
+      expect(engine.isDirty, isFalse);
+      await tester.pump(debounce);
+      expect(writer.patches, isEmpty);
+    });
+  });
+
+  testWidgets('dispose envia o patch pendente antes de descartar', (tester) async {
+    reminders.value = false;
+
+    await engine.dispose();
+
+    expect(writer.patches, [
+      {'notifications.appointmentReminders': false},
+    ]);
+
+    // Depois do dispose as variáveis não são mais rastreadas
+    reminders.value = true;
+    await tester.pump(debounce);
+    expect(writer.patches, hasLength(1));
+  });
+
+  group('flatten e unflatten', () {
+    test('mapas aninhados viram caminhos pontuados; listas são folhas', () {
+      final flat = SettingsSyncEngine.flatten({
+        'a': 1,
+        'b': {
+          'c': true,
+          'd': {'e': 'x'},
+        },
+        'list': [1, 2],
+      });
+
+      expect(flat, {'a': 1, 'b.c': true, 'b.d.e': 'x', 'list': [1, 2]});
+    });
+
+    test('campos ignorados são omitidos em qualquer nível', () {
+      final flat = SettingsSyncEngine.flatten(
+        {'updatedAt': 1, 'audio': {'updatedAt': 2, 'volume': 0.5}},
+        ignoredFields: {'updatedAt', 'audio.updatedAt'},
+      );
+
+      expect(flat, {'audio.volume': 0.5});
+    });
+
+    test('unflatten é o inverso de flatten', () {
+      final nested = {
+        'a': 1,
+        'b': {
+          'c': true,
+          'd': {'e': 'x'},
+        },
+        'list': [1, 2],
+      };
+
+      expect(SettingsSyncEngine.unflatten(SettingsSyncEngine.flatten(nested)), nested);
+    });
+  });
+}
@@ -0,0 +1,93 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/analytics_buckets.dart';
+
+void main() {
+  group('semanas', () {
+    test('começam na segunda-feira e as pontas são recortadas', () {
+      final buckets = analyticsBuckets(
+        DateTime(2026, 3, 10, 10), // terça-feira
+        DateTime(2026, 3, 29, 12), // domingo
+        AnalyticsGrouping.week,
+      );
+
+      expect(buckets, [
+        (DateTime(2026, 3, 10, 10), DateTime(2026, 3, 16)),
+        (DateTime(2026, 3, 16), DateTime(2026, 3, 23)),
+        (DateTime(2026, 3, 23), DateTime(2026, 3, 29, 12)),
+      ]);
+    });
+
+    test('período alinhado às segundas-feiras não é recortado', () {
+      expect(analyticsBuckets(DateTime(2026, 3, 9), DateTime(2026, 3, 23), AnalyticsGrouping.week), [
+        (DateTime(2026, 3, 9), DateTime(2026, 3, 16)),
+        (DateTime(2026, 3, 16), DateTime(2026, 3, 23)),
+      ]);
+    });
+
+    test('semana que atravessa a virada do ano', () {
+      expect(analyticsBuckets(DateTime(2025, 12, 31), DateTime(2026, 1, 7), AnalyticsGrouping.week), [
+        (DateTime(2025, 12, 31), DateTime(2026, 1, 5)),
+        (DateTime(2026, 1, 5), DateTime(2026, 1, 7)),
+      ]);
+    });
+  });
+
+  group('meses', () {
+    test('vão do dia 1 ao dia 1 do mês seguinte, recortados nas pontas', () {
+      expect(analyticsBuckets(DateTime(2026, 1, 15), DateTime(2026, 3, 10), AnalyticsGrouping.month), [
+        (DateTime(2026, 1, 15), DateTime(2026, 2, 1)),
+        (DateTime(2026, 2, 1), DateTime(2026, 3, 1)),
+        (DateTime(2026, 3, 1), DateTime(2026, 3, 10)),
+      ]);
+    });
+
+    test('dezembro termina no primeiro dia do ano seguinte', () {
+      expect(analyticsBuckets(DateTime(2025, 12, 1), DateTime(2026, 1, 20), AnalyticsGrouping.month), [
+        (DateTime(2025, 12, 1), DateTime(2026, 1, 1)),
+        (DateTime(2026, 1, 1), DateTime(2026, 1, 20)),
+      ]);
+    });
+  });
+
+  test('período vazio ou invertido não tem grupos', () {
+    final day = DateTime(2026, 3, 10);
+
+    expect(analyticsBuckets(day, day, AnalyticsGrouping.week), isEmpty);
+    expect(analyticsBuckets(day, day.subtract(const Duration(days: 1)), AnalyticsGrouping.month), isEmpty);
+  });
+
+  test('grupos consecutivos cobrem o período sem lacunas', () {
+    final start = DateTime(2025, 11, 19, 8);
+    final end = DateTime(2026, 4, 2, 17);
+
+    for (final groupBy in AnalyticsGrouping.values) {
+      final buckets = analyticsBuckets(start, end, groupBy);
+
+      expect(buckets.first.$1, start);
+      expect(buckets.last.$2, end);
+      for (var i = 1; i < buckets.length; i++) {
+        expect(buckets[i].$1, buckets[i - 1].$2, reason: '${groupBy.name} $i');
+      }
+    }
+  });
+
+  group('arredondamento da chave do cache', () {
+    test('início vai para o começo do grupo', () {
+      expect(analyticsBucketStart(DateTime(2026, 3, 10, 10), AnalyticsGrouping.week), DateTime(2026, 3, 9));
+      expect(analyticsBucketStart(DateTime(2026, 3, 10, 10), AnalyticsGrouping.month), DateTime(2026, 3, 1));
+    });
+
+    test('fim sobe até a próxima fronteira e mantém uma fronteira exata', () {
+      expect(analyticsBucketCeil(DateTime(2026, 3, 10, 10), AnalyticsGrouping.week), DateTime(2026, 3, 16));
+      expect(analyticsBucketCeil(DateTime(2026, 3, 16), AnalyticsGrouping.week), DateTime(2026, 3, 16));
+      expect(analyticsBucketCeil(DateTime(2026, 12, 5), AnalyticsGrouping.month), DateTime(2027, 1, 1));
+    });
+
+    test('instantes diferentes do mesmo grupo dão a mesma chave', () {
+      final first = analyticsBucketCeil(DateTime(2026, 3, 10, 10, 0, 1), AnalyticsGrouping.week);
+      final second = analyticsBucketCeil(DateTime(2026, 3, 10, 10, 0, 45), AnalyticsGrouping.week);
+
+      expect(first, second);
+    });
+  });
+}
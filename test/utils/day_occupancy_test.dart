@@ -0,0 +1,178 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/day_occupancy.dart';
+
+void main() {
+  List<int> slots(DayOccupancy occupancy) => (occupancy.toMap()['slots'] as List).cast<int>();
+
+  group('máscaras nas fronteiras das palavras de 48 bits', () {
+    test('intervalo cruzando a primeira fronteira', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 47, 49);
+
+      expect(slots(occupancy), [1 << 47, 1, 0, 0, 0, 0]);
+      expect(occupancy.isFree(46, 47), isTrue);
+      expect(occupancy.isFree(47, 48), isFalse);
+      expect(occupancy.isFree(48, 49), isFalse);
+      expect(occupancy.isFree(49, 96), isTrue);
+    });
+
+    test('palavra inteira e vizinhas intactas', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 48, 96);
+
+      expect(slots(occupancy), [0, (1 << 48) - 1, 0, 0, 0, 0]);
+      expect(occupancy.isFree(0, 48), isTrue);
+      expect(occupancy.isFree(96, DayOccupancy.slotsPerDay), isTrue);
+      expect(occupancy.isFree(95, 96), isFalse);
+      expect(occupancy.isFree(40, 50), isFalse);
+    });
+
+    test('intervalo cobrindo três palavras', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 95, 145);
+
+      expect(slots(occupancy), [0, 1 << 47, (1 << 48) - 1, 1, 0, 0]);
+      expect(occupancy.isFree(0, 95), isTrue);
+      expect(occupancy.isFree(145, DayOccupancy.slotsPerDay), isTrue);
+      expect(occupancy.isFree(144, 145), isFalse);
+    });
+
+    test('dia inteiro ocupa as seis palavras', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 0, DayOccupancy.slotsPerDay);
+
+      expect(slots(occupancy), List.filled(6, (1 << 48) - 1));
+      for (var slot = 0; slot < DayOccupancy.slotsPerDay; slot++) {
+        expect(occupancy.isFree(slot, slot + 1), isFalse, reason: 'bloco $slot');
+      }
+    });
+
+    test('isFree confere cada bloco contra um conjunto de referência', () {
+      final occupancy = DayOccupancy.empty();
+      final reference = <int>{};
+      final intervals = [(3, 9), (44, 53), (90, 97), (140, 145), (190, 193), (239, 241), (280, 288)];
+
+      for (final (start, end) in intervals) {
+        occupancy.occupy('a$start', start, end);
+        reference.addAll([for (var slot = start; slot < end; slot++) slot]);
+      }
+
+      for (var start = 0; start < DayOccupancy.slotsPerDay; start += 7) {
+        for (final length in [1, 2, 5, 13, 48, 49]) {
+          final end = start + length;
+          final expected = !reference.any((slot) => slot >= start && slot < end);
+          expect(occupancy.isFree(start, end), expected, reason: '[$start, $end)');
+        }
+      }
+    });
+  });
+
+  group('limites do dia', () {
+    test('intervalo do buffer antes da meia-noite inicial é limitado a 0', () {
+      final occupancy = DayOccupancy.empty();
+      expect(occupancy.isFree(-3, 3), isTrue);
+
+      occupancy.occupy('a', 0, 2);
+      expect(occupancy.isFree(-3, 1), isFalse);
+      expect(occupancy.isFree(-10, 0), isTrue);
+    });
+
+    test('intervalo que passa da meia-noite é limitado ao fim do dia', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 286, 300);
+
+      expect(slots(occupancy), [0, 0, 0, 0, 0, (1 << 46) | (1 << 47)]);
+      expect(occupancy.isFree(280, 400), isFalse);
+      expect(occupancy.isFree(280, 286), isTrue);
+      expect(occupancy.isFree(DayOccupancy.slotsPerDay, 400), isTrue);
+    });
+
+    test('slotRange arredonda o fim para cima e limita à meia-noite', () {
+      expect(DayOccupancy.slotRange(DateTime(2026, 3, 5, 10, 7), 30), (121, 128));
+      expect(DayOccupancy.slotRange(DateTime(2026, 3, 5, 10), 30), (120, 126));
+      expect(DayOccupancy.slotRange(DateTime(2026, 3, 5, 23, 30), 60), (282, DayOccupancy.slotsPerDay));
+    });
+
+    test('slotsFor arredonda para cima', () {
+      expect(DayOccupancy.slotsFor(0), 0);
+      expect(DayOccupancy.slotsFor(15), 3);
+      expect(DayOccupancy.slotsFor(16), 4);
+    });
+  });
+
+  group('release', () {
+    test('refaz o bitmap a partir das consultas restantes', () {
+      final occupancy = DayOccupancy.empty()
+        ..occupy('a', 10, 20)
+        ..occupy('b', 15, 25);
+
+      expect(occupancy.release('a'), isTrue);
+
+      expect(occupancy.isFree(10, 15), isTrue);
+      expect(occupancy.isFree(15, 25), isFalse);
+      for (var slot = 15; slot < 25; slot++) {
+        expect(occupancy.isFree(slot, slot + 1), isFalse, reason: 'bloco $slot');
+      }
+      expect(occupancy.count, 1);
+      expect(occupancy.contains('a'), isFalse);
+    });
+
+    test('consulta desconhecida não altera nada', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 47, 49);
+
+      expect(occupancy.release('x'), isFalse);
+      expect(slots(occupancy), [1 << 47, 1, 0, 0, 0, 0]);
+    });
+
+    test('liberar a última consulta zera todas as palavras', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 40, 150);
+
+      occupancy.release('a');
+
+      expect(slots(occupancy), List.filled(6, 0));
+      expect(occupancy.count, 0);
+    });
+  });
+
+  group('documento', () {
+    test('toMap e fromMap preservam intervalos e bitmap', () {
+      final occupancy = DayOccupancy.empty()
+        ..occupy('a', 47, 49)
+        ..occupy('b', 120, 126);
+
+      final restored = DayOccupancy.fromMap(occupancy.toMap());
+
+      expect(restored.toMap(), occupancy.toMap());
+      expect(restored.count, 2);
+      expect(restored.contains('b'), isTrue);
+    });
+
+    test('fromMap deriva o bitmap dos intervalos, ignorando slots gravados', () {
+      final restored = DayOccupancy.fromMap({
+        'slots': List.filled(6, (1 << 48) - 1),
+        'count': 1,
+        'appointments': {
+          'a': {'start': 1, 'end': 2},
+        },
+      });
+
+      expect(restored.isFree(0, 1), isTrue);
+      expect(restored.isFree(1, 2), isFalse);
+      expect(restored.isFree(2, DayOccupancy.slotsPerDay), isTrue);
+    });
+
+    test('fromMap de um documento inexistente é um dia vazio', () {
+      final occupancy = DayOccupancy.fromMap(null);
+
+      expect(occupancy.count, 0);
+      expect(occupancy.isFree(0, DayOccupancy.slotsPerDay), isTrue);
+    });
+
+    test('toAppointments converte os blocos em horário e duração', () {
+      final occupancy = DayOccupancy.empty()..occupy('a', 120, 126);
+
+      expect(occupancy.toAppointments(DateTime(2026, 3, 5, 18)), [
+        {'dateTime': DateTime(2026, 3, 5, 10), 'duration': 30},
+      ]);
+    });
+
+    test('documentId usa o médium e a data', () {
+      expect(DayOccupancy.documentId('m1', DateTime(2026, 3, 5, 14)), 'm1_20260305');
+    });
+  });
+}
@@ -0,0 +1,212 @@
+import 'package:cloud_firestore/cloud_firestore.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:intl/intl.dart';
+import 'package:oraculum_medium/utils/earnings_series.dart';
+
+import '../../benchmark/legacy/legacy_earnings.dart';
+
+void main() {
+  final records = LegacyEarnings.generateRecords(DateTime(2021, 1, 1), 3);
+
+  EarningsSeries seriesOf(Iterable<Map<String, dynamic>> records) => EarningsSeries()..sync(records);
+
+  group('equivalência com o agrupamento antigo', () {
+    test('mesmos dias e totais, em ordem', () {
+      final legacy = LegacyEarnings.group(records);
+      final points = seriesOf(records).points();
+
+      expect(points, hasLength(legacy.length));
+      for (var i = 0; i < points.length; i++) {
+        final (dateKey, medium, oraculum) = legacy[i];
+        expect(DateFormat('yyyy-MM-dd').format(points[i].date), dateKey, reason: 'dia $i');
+        expect(points[i].mediumAmount, closeTo(medium, 1e-6), reason: dateKey);
+        expect(points[i].oraculumAmount, closeTo(oraculum, 1e-6), reason: dateKey);
+      }
+    });
+
+    test('remover e sincronizar de novo volta aos mesmos totais', () {
+      final series = seriesOf(records);
+      final before = series.points();
+
+      expect(series.remove(records[records.length ~/ 2]['id'] as String), isTrue);
+      expect(series.sync(records), 1);
+
+      final after = series.points();
+      expect(after, hasLength(before.length));
+      for (var i = 0; i < before.length; i++) {
+        expect(after[i].mediumAmount, closeTo(before[i].mediumAmount, 1e-6));
+      }
+    });
+  });
+
+  group('LTTB', () {
+    test('respeita o orçamento e mantém o primeiro e o último dia', () {
+      final series = seriesOf(records);
+      final full = series.points();
+
+      for (final budget in [3, 10, 100, 500]) {
+        final reduced = series.points(maxPoints: budget);
+
+        expect(reduced, hasLength(budget));
+        expect(reduced.first.date, full.first.date);
+        expect(reduced.last.date, full.last.date);
+        for (var i = 1; i < reduced.length; i++) {
+          expect(reduced[i].date.isAfter(reduced[i - 1].date), isTrue, reason: 'orçamento $budget, ponto $i');
+        }
+      }
+    });
+
+    test('preserva um pico isolado', () {
+      final series = EarningsSeries();
+      for (var day = 0; day < 100; day++) {
+        series.upsert('d$day', DateTime(2026, 1, 1 + day), day == 57 ? 1000.0 : 10.0, 0);
+      }
+
+      final reduced = series.points(maxPoints: 10);
+
+      expect(reduced.map((point) => point.mediumAmount), contains(1000));
+    });
+
+    test('janela menor que o orçamento ou orçamento abaixo de 3 não reduz', () {
+      final series = seriesOf(records);
+
+      expect(series.points(maxPoints: 2), hasLength(series.length));
+      expect(
+        series.points(from: DateTime(2022, 3, 1), to: DateTime(2022, 3, 10), maxPoints: 100),
+        hasLength(10),
+      );
+    });
+
+    test('janela inclui os dois extremos', () {
+      final points = seriesOf(records).points(from: DateTime(2022, 3, 1, 23), to: DateTime(2022, 3, 3));
+
+      expect(points.map((point) => point.date), [
+        DateTime(2022, 3, 1),
+        DateTime(2022, 3, 2),
+        DateTime(2022, 3, 3),
+      ]);
+    });
+
+    test('resultado fica em cache até a série mudar', () {
+      final series = seriesOf(records);
+      final first = series.points(maxPoints: 50);
+
+      expect(identical(series.points(maxPoints: 50), first), isTrue);
+
+      series.upsert('novo', DateTime(2023, 6, 1, 12), 500, 100);
+      expect(identical(series.points(maxPoints: 50), first), isFalse);
+    });
+  });
+
+  group('atualização incremental', () {
+    test('upsert sem mudança retorna false e não muda a versão', () {
+      final series = EarningsSeries()..upsert('a', DateTime(2026, 1, 5, 10), 80, 20);
+      final version = series.version;
+
+      expect(series.upsert('a', DateTime(2026, 1, 5, 18), 80, 20), isFalse);
+      expect(series.version, version);
+    });
+
+    test('upsert que muda o dia move o valor entre os dias', () {
+      final series = EarningsSeries()
+        ..upsert('a', DateTime(2026, 1, 5, 10), 80, 20)
+        ..upsert('b', DateTime(2026, 1, 5, 15), 40, 10);
+
+      series.upsert('a', DateTime(2026, 1, 7, 10), 80, 20);
+
+      final points = series.points();
+      expect(points.map((point) => point.date), [DateTime(2026, 1, 5), DateTime(2026, 1, 7)]);
+      expect(points.map((point) => point.mediumAmount), [40, 80]);
+    });
+
+    test('remover o último registro de um dia remove o dia', () {
+      final series = EarningsSeries()
+        ..upsert('a', DateTime(2026, 1, 5, 10), 80, 20)
+        ..upsert('b', DateTime(2026, 1, 6, 10), 40, 10);
+
+      expect(series.remove('a'), isTrue);
+      expect(series.remove('a'), isFalse);
+      expect(series.length, 1);
+      expect(series.firstDate, DateTime(2026, 1, 6));
+    });
+
+    test('sync adiciona, atualiza e remove, aceitando Timestamp', () {
+      final series = seriesOf([
+        {'id': 'a', 'date': DateTime(2026, 1, 5, 10), 'mediumAmount': 80.0, 'oraculumAmount': 20.0},
+        {'id': 'b', 'date': DateTime(2026, 1, 6, 10), 'mediumAmount': 40.0, 'oraculumAmount': 10.0},
+      ]);
+
+      final changes = series.sync([
+        {'id': 'a', 'date': DateTime(2026, 1, 5, 10), 'mediumAmount': 80.0, 'oraculumAmount': 20.0},
+        {'id': 'c', 'date': Timestamp.fromDate(DateTime(2026, 1, 8, 9)), 'mediumAmount': 60, 'oraculumAmount': 15},
+      ]);
+
+      expect(changes, 2);
+      expect(series.recordCount, 2);
+      expect(series.points().map((point) => point.date), [DateTime(2026, 1, 5), DateTime(2026, 1, 8)]);
+    });
+
+    test('applyChanges mexe só nos registros recebidos', () {
+      final series = seriesOf([
+        {'id': 'a', 'date': DateTime(2026, 1, 5, 10), 'mediumAmount': 80.0, 'oraculumAmount': 20.0},
+        {'id': 'b', 'date': DateTime(2026, 1, 6, 10), 'mediumAmount': 40.0, 'oraculumAmount': 10.0},
+      ]);
+
+      final changes = series.applyChanges(
+        upserted: [
+          {'id': 'b', 'date': Timestamp.fromDate(DateTime(2026, 1, 6, 11)), 'mediumAmount': 60, 'oraculumAmount': 15},
+          {'id': 'c', 'date': DateTime(2026, 1, 8, 9), 'mediumAmount': 30.0, 'oraculumAmount': 5.0},
+        ],
+        removed: ['a'],
+      );
+
+      expect(changes, 3);
+      expect(series.recordCount, 2);
+      expect(series.points().map((point) => point.date), [DateTime(2026, 1, 6), DateTime(2026, 1, 8)]);
+      expect(series.points().map((point) => point.mediumAmount), [60, 30]);
+    });
+
+    test('applyChanges sem mudança real não muda a versão', () {
+      final series = seriesOf([
+        {'id': 'a', 'date': DateTime(2026, 1, 5, 10), 'mediumAmount': 80.0, 'oraculumAmount': 20.0},
+      ]);
+      final version = series.version;
+
+      final changes = series.applyChanges(
+        upserted: [
+          {'id': 'a', 'date': DateTime(2026, 1, 5, 10), 'mediumAmount': 80.0, 'oraculumAmount': 20.0},
+        ],
+        removed: ['desconhecido'],
+      );
+
+      expect(changes, 0);
+      expect(series.version, version);
+    });
+
+    test('applyChanges em lotes chega aos mesmos totais que sync', () {
+      final incremental = EarningsSeries();
+      for (var i = 0; i < records.length; i += 97) {
+        incremental.applyChanges(upserted: records.skip(i).take(97));
+      }
+      incremental.applyChanges(removed: [records.first['id'] as String]);
+
+      final expected = seriesOf(records.skip(1)).points();
+      final points = incremental.points();
+
+      expect(points, hasLength(expected.length));
+      for (var i = 0; i < points.length; i++) {
+        expect(points[i].date, expected[i].date);
+        expect(points[i].mediumAmount, closeTo(expected[i].mediumAmount, 1e-6));
+      }
+    });
+
+    test('dayNumber e dateOf são inversos e ignoram o horário', () {
+      for (var day = 0; day < 800; day++) {
+        final date = DateTime(2023, 1, 1 + day);
+        expect(EarningsSeries.dateOf(EarningsSeries.dayNumber(date)), date);
+        expect(EarningsSeries.dayNumber(DateTime(date.year, date.month, date.day, 23, 59)),
+            EarningsSeries.dayNumber(date));
+      }
+    });
+  });
+}
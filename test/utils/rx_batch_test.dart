@@ -0,0 +1,68 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
+
+void main() {
+  final batch = RxBatch.instance;
+
+  late int applied;
+  late int coalesced;
+
+  setUp(() {
+    batch.flush();
+    applied = batch.appliedWrites;
+    coalesced = batch.coalescedWrites;
+  });
+
+  testWidgets('duas variáveis com o mesmo valor são aplicadas separadamente', (tester) async {
+    final first = 0.obs;
+    final second = 0.obs;
+
+    batch.set(first, 5);
+    batch.set(second, 5);
+    expect(first.value, 0);
+
+    await tester.pump();
+
+    expect(first.value, 5);
+    expect(second.value, 5);
+    expect(batch.appliedWrites - applied, 2);
+    expect(batch.coalescedWrites - coalesced, 0);
+  });
+
+  testWidgets('a última escrita da mesma variável vence', (tester) async {
+    final counter = 0.obs;
+
+    batch
+      ..set(counter, 1)
+      ..set(counter, 2)
+      ..set(counter, 3);
+    await tester.pump();
+
+    expect(counter.value, 3);
+    expect(batch.appliedWrites - applied, 1);
+    expect(batch.coalescedWrites - coalesced, 2);
+  });
+
+  testWidgets('escrita igual ao valor atual é descartada, inclusive listas', (tester) async {
+    final items = Rx<List<int>>([1, 2, 3]);
+    final label = 'a'.obs;
+
+    batch
+      ..set(items, [1, 2, 3])
+      ..set(label, 'a');
+    await tester.pump();
+
+    expect(batch.hasPending, isFalse);
+    expect(batch.appliedWrites - applied, 0);
+    expect(batch.coalescedWrites - coalesced, 2);
+  });
+
+  test('isSame compara o conteúdo de coleções', () {
+    expect(RxBatch.isSame([1, 2], [1, 2]), isTrue);
+    expect(RxBatch.isSame({'a': 1}, {'a': 1}), isTrue);
+    expect(RxBatch.isSame({1, 2}, {2, 1}), isTrue);
+    expect(RxBatch.isSame([1, 2], [2, 1]), isFalse);
+    expect(RxBatch.isSame(null, 0), isFalse);
+  });
+}
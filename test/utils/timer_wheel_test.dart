@@ -0,0 +1,211 @@
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/timer_wheel.dart';
+
+void main() {
+  const tickMs = 1000;
+
+  /// Avança [wheel] até [nowMs] e devolve as chaves disparadas, com o tick
+  /// em que cada uma disparou
+  List<(String, int)> advance(TimerWheel<String, String> wheel, int nowMs) {
+    final fired = <(String, int)>[];
+    wheel.advanceTo(nowMs, (key, _) => fired.add((key, wheel.currentMs)));
+    return fired;
+  }
+
+  group('inserir, cancelar e substituir', () {
+    test('dispara no tick do prazo, arredondado para cima', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 5 * tickMs, 'A');
+      wheel.schedule('b', 5 * tickMs + 1, 'B');
+
+      expect(wheel.length, 2);
+      expect(advance(wheel, 4 * tickMs), isEmpty);
+      expect(advance(wheel, 5 * tickMs), [('a', 5 * tickMs)]);
+      expect(advance(wheel, 6 * tickMs), [('b', 6 * tickMs)]);
+      expect(wheel.isEmpty, isTrue);
+    });
+
+    test('entrega o payload agendado', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 3 * tickMs, 'A');
+
+      final payloads = <String>[];
+      wheel.advanceTo(3 * tickMs, (_, payload) => payloads.add(payload));
+
+      expect(payloads, ['A']);
+    });
+
+    test('prazo vencido dispara no próximo tick', () {
+      final wheel = TimerWheel<String, String>(startMs: 10 * tickMs);
+      wheel.schedule('a', 2 * tickMs, 'A');
+
+      expect(advance(wheel, 11 * tickMs), [('a', 11 * tickMs)]);
+    });
+
+    test('cancelar remove a entrada e só retorna true uma vez', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 5 * tickMs, 'A');
+      wheel.schedule('b', 5 * tickMs, 'B');
+
+      expect(wheel.cancel('a'), isTrue);
+      expect(wheel.cancel('a'), isFalse);
+      expect(wheel.contains('a'), isFalse);
+      expect(advance(wheel, 10 * tickMs), [('b', 5 * tickMs)]);
+    });
+
+    test('cancelar o primeiro, o do meio e o último de uma mesma posição', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      for (final key in ['a', 'b', 'c', 'd']) {
+        wheel.schedule(key, 5 * tickMs, key);
+      }
+
+      wheel.cancel('d');
+      wheel.cancel('b');
+      wheel.cancel('a');
+
+      expect(advance(wheel, 5 * tickMs), [('c', 5 * tickMs)]);
+    });
+
+    test('agendar a mesma chave substitui o prazo anterior', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 5 * tickMs, 'antigo');
+      wheel.schedule('a', 200 * tickMs, 'novo');
+
+      expect(wheel.length, 1);
+      expect(advance(wheel, 199 * tickMs), isEmpty);
+
+      final payloads = <String>[];
+      wheel.advanceTo(200 * tickMs, (_, payload) => payloads.add(payload));
+      expect(payloads, ['novo']);
+    });
+
+    test('clear descarta todas as entradas', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 5 * tickMs, 'A');
+      wheel.schedule('b', 5000 * tickMs, 'B');
+
+      wheel.clear();
+
+      expect(wheel.isEmpty, isTrue);
+      expect(advance(wheel, 6000 * tickMs), isEmpty);
+    });
+
+    test('callbacks podem agendar e cancelar outras entradas', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      wheel.schedule('a', 5 * tickMs, 'A');
+      wheel.schedule('b', 5 * tickMs, 'B');
+      wheel.schedule('c', 7 * tickMs, 'C');
+
+      final fired = <String>[];
+      wheel.advanceTo(10 * tickMs, (key, _) {
+        fired.add(key);
+        if (key == 'a' || key == 'b') {
+          wheel.cancel('c');
+          wheel.schedule('retry_$key', wheel.currentMs, key);
+        }
+      });
+
+      expect(fired.toSet(), {'a', 'b', 'retry_a', 'retry_b'});
+      expect(fired.sublist(2).toSet(), {'retry_a', 'retry_b'});
+      expect(wheel.isEmpty, isTrue);
+    });
+  });
+
+  group('redistribuição entre níveis', () {
+    // Deltas nos limites de cada nível: 64 e 64² ticks
+    for (final delta in [63, 64, 65, 127, 128, 4095, 4096, 4097, 100000]) {
+      test('prazo $delta ticks à frente dispara no tick exato', () {
+        final wheel = TimerWheel<String, String>(startMs: 0);
+        wheel.schedule('a', delta * tickMs, 'A');
+
+        expect(advance(wheel, (delta - 1) * tickMs), isEmpty);
+        expect(advance(wheel, (delta + 10) * tickMs), [('a', delta * tickMs)]);
+      });
+    }
+
+    test('início fora de uma fronteira de nível', () {
+      // 4030 está a 66 ticks da próxima fronteira de 64² (4096)
+      final wheel = TimerWheel<String, String>(startMs: 4030 * tickMs);
+      final deadlines = [4095, 4096, 4097, 4159, 4160, 8191, 8192, 8200];
+      for (final deadline in deadlines) {
+        wheel.schedule('t$deadline', deadline * tickMs, 'P');
+      }
+
+      final fired = advance(wheel, 9000 * tickMs);
+
+      expect(fired, [for (final deadline in deadlines) ('t$deadline', deadline * tickMs)]);
+      expect(wheel.cascadedEntries, greaterThan(0));
+    });
+
+    test('avançar tick a tick dá o mesmo resultado que de uma vez', () {
+      final deadlines = [for (var i = 0; i < 200; i++) 1 + (i * 7919) % 20000];
+
+      final stepped = TimerWheel<String, String>(startMs: 0);
+      final jumped = TimerWheel<String, String>(startMs: 0);
+      for (var i = 0; i < deadlines.length; i++) {
+        stepped.schedule('k$i', deadlines[i] * tickMs, 'P');
+        jumped.schedule('k$i', deadlines[i] * tickMs, 'P');
+      }
+
+      final steppedFired = <(String, int)>[];
+      for (var now = 0; now <= 20000; now += 37) {
+        steppedFired.addAll(advance(stepped, now * tickMs));
+      }
+      steppedFired.addAll(advance(stepped, 20001 * tickMs));
+
+      final jumpedFired = advance(jumped, 20001 * tickMs);
+
+      expect(steppedFired, jumpedFired);
+      expect(jumpedFired.length, deadlines.length);
+      for (final (key, firedAt) in jumpedFired) {
+        final deadline = deadlines[int.parse(key.substring(1))];
+        expect(firedAt, deadline * tickMs, reason: key);
+      }
+    });
+
+    test('disparos saem na ordem dos prazos', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      final deadlines = [5000, 70, 4096, 1, 64, 300000, 63];
+      for (final deadline in deadlines) {
+        wheel.schedule('t$deadline', deadline * tickMs, 'P');
+      }
+
+      final fired = advance(wheel, 400000 * tickMs).map((entry) => entry.$2 ~/ tickMs).toList();
+
+      expect(fired, [...deadlines]..sort());
+    });
+  });
+
+  group('prazos além do alcance da roda', () {
+    test('com 2 níveis (64² ticks), o prazo é mantido e dispara no tick certo', () {
+      final wheel = TimerWheel<String, String>(startMs: 0, levels: 2);
+      const span = 64 * 64;
+      wheel.schedule('longe', (3 * span + 123) * tickMs, 'L');
+      wheel.schedule('perto', 10 * tickMs, 'P');
+
+      expect(advance(wheel, (3 * span + 122) * tickMs), [('perto', 10 * tickMs)]);
+      expect(wheel.contains('longe'), isTrue);
+      expect(advance(wheel, (3 * span + 123) * tickMs), [('longe', (3 * span + 123) * tickMs)]);
+    });
+
+    test('com 4 níveis, prazo além de 64⁴ ticks', () {
+      final wheel = TimerWheel<String, String>(startMs: 0);
+      const span = 64 * 64 * 64 * 64;
+      const deadline = span + 5000;
+      wheel.schedule('longe', deadline * tickMs, 'L');
+
+      expect(advance(wheel, (deadline - 1) * tickMs), isEmpty);
+      expect(advance(wheel, deadline * tickMs), [('longe', deadline * tickMs)]);
+    });
+
+    test('tick diferente de 1 s', () {
+      final wheel = TimerWheel<String, String>(startMs: 0, tickMs: 250, levels: 1);
+      wheel.schedule('a', 64 * 250 * 5 + 100, 'A');
+
+      final fired = <int>[];
+      wheel.advanceTo(64 * 250 * 6, (_, __) => fired.add(wheel.currentMs));
+
+      expect(fired, [64 * 250 * 5 + 250]);
+    });
+  });
+}
@@ -0,0 +1,99 @@
+import 'dart:typed_data';
+
+import 'package:flutter_test/flutter_test.dart';
+import 'package:oraculum_medium/utils/zodiac_utils.dart';
+
+import '../../benchmark/legacy/legacy_zodiac.dart';
+
+void main() {
+  final signs = [...ZodiacUtils.allSigns, 'Desconhecido'];
+
+  group('equivalência com a implementação antiga', () {
+    test('elemento de cada signo', () {
+      for (final sign in signs) {
+        expect(ZodiacUtils.getElement(sign), LegacyZodiac.element(sign), reason: sign);
+      }
+    });
+
+    test('compatibilidade para todos os pares, inclusive signo desconhecido', () {
+      for (final a in signs) {
+        for (final b in signs) {
+          expect(ZodiacUtils.calculateCompatibilityScore(a, b), LegacyZodiac.compatibility(a, b),
+              reason: '$a x $b');
+        }
+      }
+    });
+
+    test('signo de cada dia de um ano bissexto', () {
+      // 2024 é bissexto, cobrindo também 29/02
+      for (var day = 0; day < 366; day++) {
+        final date = DateTime(2024, 1, 1 + day);
+        expect(ZodiacUtils.getZodiacSignFromDate(date), LegacyZodiac.signFromDate(date),
+            reason: date.toIso8601String());
+      }
+    });
+
+    test('signo em ano não bissexto usa o mesmo dia do mês', () {
+      expect(ZodiacUtils.getZodiacSignFromDate(DateTime(2023, 3, 1)),
+          LegacyZodiac.signFromDate(DateTime(2023, 3, 1)));
+      expect(ZodiacUtils.getZodiacSignFromDate(DateTime(2023, 12, 31)), 'Capricórnio');
+    });
+  });
+
+  group('rankSignIndices', () {
+    test('ordena como a ordenação estável por pontuação da implementação antiga', () {
+      final mediumSigns = List<String>.generate(200, (i) => signs[(i * 5 + 3) % signs.length]);
+      final indices = Int8List.fromList([for (final sign in mediumSigns) ZodiacUtils.signIndex(sign)]);
+      final order = Int32List(mediumSigns.length);
+      final scores = Float64List(mediumSigns.length);
+
+      for (final client in ZodiacUtils.allSigns) {
+        ZodiacUtils.rankSignIndices(ZodiacUtils.signIndex(client), indices, order, scores: scores);
+
+        final expected = List<int>.generate(mediumSigns.length, (i) => i)
+          ..sort((a, b) {
+            final byScore = LegacyZodiac.compatibility(client, mediumSigns[b])
+                .compareTo(LegacyZodiac.compatibility(client, mediumSigns[a]));
+            return byScore != 0 ? byScore : a.compareTo(b);
+          });
+
+        // Empates entre signos diferentes seguem a ordem de allSigns, então
+        // comparamos as pontuações e a estabilidade dentro de cada signo
+        for (var i = 0; i < order.length; i++) {
+          expect(scores[i], LegacyZodiac.compatibility(client, mediumSigns[expected[i]]),
+              reason: '$client, posição $i');
+        }
+        for (var i = 1; i < order.length; i++) {
+          if (indices[order[i]] == indices[order[i - 1]]) {
+            expect(order[i], greaterThan(order[i - 1]));
+          }
+        }
+      }
+    });
+
+    test('sem signo do cliente mantém a ordem original', () {
+      final order = Int32List(5);
+      final scores = Float64List(5);
+      ZodiacUtils.rankSignIndices(ZodiacUtils.unknownSign, Int8List.fromList([3, 1, -1, 7, 0]), order,
+          scores: scores);
+
+      expect(order, [0, 1, 2, 3, 4]);
+      expect(scores, everyElement(ZodiacUtils.defaultCompatibility));
+    });
+
+    test('length limita a ordenação ao início da lista', () {
+      final order = Int32List(4)..fillRange(0, 4, -1);
+      ZodiacUtils.rankSignIndices(0, Int8List.fromList([6, 1, 4, 2]), order, length: 2);
+
+      expect(order.sublist(0, 2).toSet(), {0, 1});
+      expect(order.sublist(2), [-1, -1]);
+    });
+  });
+
+  test('rankBySign devolve os objetos na ordem de compatibilidade', () {
+    final mediums = ['Libra', 'Touro', null, 'Leão'];
+    final ranked = ZodiacUtils.rankBySign<String?>('Áries', mediums, (sign) => sign);
+
+    expect(ranked, ['Libra', 'Leão', null, 'Touro']);
+  });
+}
@@ -0,0 +1,111 @@
+import 'package:flutter/material.dart';
+import 'package:flutter_test/flutter_test.dart';
+import 'package:get/get.dart';
+import 'package:oraculum_medium/utils/rebuild_profiler.dart';
+import 'package:oraculum_medium/utils/rx_batch.dart';
+import 'package:oraculum_medium/widgets/rx_selector.dart';
+
+void main() {
+  setUp(() {
+    RxBatch.instance.flush();
+    RebuildProfiler.reset();
+  });
+
+  Future<void> pumpBoth(WidgetTester tester, Rx<Map<String, int>> source) {
+    return tester.pumpWidget(Directionality(
+      textDirection: TextDirection.ltr,
+      child: Column(
+        children: [
+          Obx(() {
+            RebuildProfiler.record('obx');
+            return Text('${source.value['rating']}');
+          }),
+          RxSelector<Map<String, int>, int?>(
+            source: source,
+            selector: (stats) => stats['rating'],
+            debugLabel: 'selector',
+            builder: (context, rating) => Text('$rating'),
+          ),
+        ],
+      ),
+    ));
+  }
+
+  group('RxSelector', () {
+    testWidgets('mudança fora da fatia reconstrói o Obx, mas não o seletor', (tester) async {
+      final stats = Rx<Map<String, int>>({'rating': 4, 'visits': 10});
+      await pumpBoth(tester, stats);
+
+      for (var visits = 11; visits <= 15; visits++) {
+        stats.value = {'rating': 4, 'visits': visits};
+        await tester.pump();
+      }
+
+      expect(RebuildProfiler.count('obx'), 6);
+      expect(RebuildProfiler.count('selector'), 1);
+    });
+
+    testWidgets('mudança na fatia reconstrói os dois', (tester) async {
+      final stats = Rx<Map<String, int>>({'rating': 4, 'visits': 10});
+      await pumpBoth(tester, stats);
+
+      stats.value = {'rating': 5, 'visits': 10};
+      await tester.pump();
+
+      expect(RebuildProfiler.count('obx'), 2);
+      expect(RebuildProfiler.count('selector'), 2);
+      expect(find.text('5'), findsNWidgets(2));
+    });
+  });
+
+  group('RxBatch', () {
+    testWidgets('mapa novo com o mesmo conteúdo reconstrói sem o lote', (tester) async {
+      final stats = Rx<Map<String, int>>({'rating': 4, 'visits': 10});
+      await pumpBoth(tester, stats);
+
+      stats.value = {'rating': 4, 'visits': 10};
+      await tester.pump();
+
+      expect(RebuildProfiler.count('obx'), 2);
+    });
+
+    testWidgets('com o lote, o mapa igual é descartado e nada reconstrói', (tester) async {
+      final stats = Rx<Map<String, int>>({'rating': 4, 'visits': 10});
+      await pumpBoth(tester, stats);
+
+      RxBatch.instance.set(stats, {'rating': 4, 'visits': 10});
+      await tester.pump();
+
+      expect(RebuildProfiler.count('obx'), 1);
+      expect(RebuildProfiler.count('selector'), 1);
+    });
+
+    testWidgets('no mesmo frame o Obx já agrupa; o lote reduz as notificações', (tester) async {
+      final stats = Rx<Map<String, int>>({'rating': 4, 'visits': 10});
+      var notifications = 0;
+      final worker = ever(stats, (_) => notifications++);
+      await pumpBoth(tester, stats);
+
+      for (var visits = 11; visits <= 13; visits++) {
+        stats.value = {'rating': 4, 'visits': visits};
+      }
+      await tester.pump();
+
+      expect(notifications, 3);
+      expect(RebuildProfiler.count('obx'), 2);
+
+      notifications = 0;
+      RebuildProfiler.reset();
+      for (var visits = 14; visits <= 16; visits++) {
+        RxBatch.instance.set(stats, {'rating': 4, 'visits': visits});
+      }
+      await tester.pump();
+
+      expect(notifications, 1);
+      expect(RebuildProfiler.count('obx'), 1);
+      expect(stats.value['visits'], 16);
+
+      worker.dispose();
+    });
+  });
+}